@@ -0,0 +1,40 @@
+package land.melon.lab.simplelanguageloader.benchmark;
+
+import land.melon.lab.simplelanguageloader.utils.ColorConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ColorConverter#convertConvenientColorCode(String)} on hex-heavy strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ColorConverterBenchmark {
+    @Param({"1", "16", "64"})
+    public int hexCodes;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        var builder = new StringBuilder();
+        for (int i = 0; i < hexCodes; i++) {
+            builder.append(String.format("&#%06x", i * 0x10204 & 0xffffff)).append("gradient ").append("&l");
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public String convertConvenientColorCode() {
+        return ColorConverter.convertConvenientColorCode(text);
+    }
+
+    @Benchmark
+    public String translateToLegacyColorText() {
+        return ColorConverter.translateToLegacyColorText(text, '&');
+    }
+}
@@ -0,0 +1,57 @@
+package land.melon.lab.simplelanguageloader.benchmark;
+
+import com.google.gson.reflect.TypeToken;
+import land.melon.lab.simplelanguageloader.SimpleLanguageLoader;
+import land.melon.lab.simplelanguageloader.components.Text;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SimpleLanguageLoader#loadFromFile(File, Type)} on language files with 10, 1k and 50k keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+    private static final Type languageType = new TypeToken<Map<String, Text>>() {
+    }.getType();
+
+    @Param({"10", "1000", "50000"})
+    public int keys;
+
+    private final SimpleLanguageLoader loader = new SimpleLanguageLoader();
+    private File languageFile;
+
+    @Setup
+    public void setup() throws IOException {
+        var language = new LinkedHashMap<String, Text>();
+        for (int i = 0; i < keys; i++) {
+            if (i % 4 == 0) {
+                language.put("multiLine" + i, Text.of("&6Header {player}", "&#66ccffline two of " + i, "&7footer"));
+            } else {
+                language.put("key" + i, Text.of("&aMessage number " + i + " for &#c75f78{player}&r, you have {amount} coins."));
+            }
+        }
+        languageFile = Files.createTempFile("language", ".json").toFile();
+        loader.saveToFile(languageFile, language);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(languageFile.toPath());
+    }
+
+    @Benchmark
+    public Map<String, Text> loadFromFile() throws IOException {
+        return loader.loadFromFile(languageFile, languageType);
+    }
+}
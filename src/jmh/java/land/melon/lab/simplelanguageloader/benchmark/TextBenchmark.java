@@ -0,0 +1,108 @@
+package land.melon.lab.simplelanguageloader.benchmark;
+
+import land.melon.lab.simplelanguageloader.components.Placeholders;
+import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Text} construction and rendering with 0, 3 and 20 placeholders per line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TextBenchmark {
+    @Param({"0", "3", "20"})
+    public int placeholders;
+
+    private String[] lines;
+    private Text text;
+    private Pair<String, Object>[] pairs;
+    private String[] keys;
+    private long sequence;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        var line = new StringBuilder("&6[Shop] &#66ccffWelcome back");
+        for (int i = 0; i < placeholders; i++) {
+            line.append(i % 2 == 0 ? " &a{" : " &#c75f78{").append("placeholder").append(i).append('}');
+        }
+        lines = new String[]{line.toString(), "&7second line of the message", line.toString()};
+        text = Text.of(lines);
+        pairs = new Pair[placeholders];
+        keys = new String[placeholders];
+        for (int i = 0; i < placeholders; i++) {
+            keys[i] = ("placeholder" + i).intern();
+            pairs[i] = Pair.of(keys[i], i % 3 == 0 ? (Object) (i * 1.5) : "value" + i);
+        }
+    }
+
+    /**
+     * Compiles new lines on every call, made unique by a sequence number so they are never found in the line pool.
+     * Includes the cost of building the unique strings.
+     */
+    @Benchmark
+    public Text construct() {
+        var suffix = " #" + sequence++;
+        return Text.of(lines[0] + suffix, lines[1] + suffix, lines[2] + suffix);
+    }
+
+    /**
+     * Constructs a text of lines which are already pooled, like texts repeated across containers and locales.
+     */
+    @Benchmark
+    public Text constructPooled() {
+        return Text.of(lines);
+    }
+
+    @Benchmark
+    public String produce() {
+        return text.produce(pairs);
+    }
+
+    /**
+     * Builds the pairs on every call, like a plugin does when sending a message.
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String producePairs() {
+        var callPairs = new Pair[placeholders];
+        for (int i = 0; i < placeholders; i++) {
+            callPairs[i] = Pair.of(keys[i], i % 3 == 0 ? (Object) (i * 1.5) : pairs[i].value());
+        }
+        return text.produce(callPairs);
+    }
+
+    /**
+     * Fills reused {@link Placeholders} on every call, the counterpart of {@link #producePairs()}.
+     */
+    @Benchmark
+    public String producePlaceholders() {
+        var values = Placeholders.local();
+        for (int i = 0; i < placeholders; i++) {
+            if (i % 3 == 0) {
+                values.set(keys[i], i * 1.5);
+            } else {
+                values.set(keys[i], pairs[i].value());
+            }
+        }
+        return text.produce(values);
+    }
+
+    @Benchmark
+    public List<String> produceAsList() {
+        return text.produceAsList(pairs);
+    }
+
+    @Benchmark
+    public Component produceAsComponent() {
+        return text.produceAsComponent(pairs);
+    }
+}
@@ -0,0 +1,23 @@
+package land.melon.lab.simplelanguageloader;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The result of loading every language file of a directory tree, see {@link SimpleLanguageLoader#loadPackAsync(File, Type, Executor)}.
+ * <p>A file failing to load doesn't fail the others, its error is reported in {@link #errors()} instead.</p>
+ *
+ * @param loaded deserialized objects by file, in path order
+ * @param errors errors by file of the files failed to load, in path order
+ * @param <T>    type of the objects
+ */
+public record LanguagePack<T>(Map<File, T> loaded, Map<File, Exception> errors) {
+    /**
+     * @return true if every file of the pack is loaded
+     */
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
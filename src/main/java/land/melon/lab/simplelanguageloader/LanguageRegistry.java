@@ -0,0 +1,411 @@
+package land.melon.lab.simplelanguageloader;
+
+import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.components.TextIndex;
+import land.melon.lab.simplelanguageloader.components.TextWalker;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the same language container class loaded for many locales.
+ * <p>A registry loads every <code>&lt;locale&gt;.json</code> file of a directory, for example <code>en_US.json</code>
+ * and <code>zh_CN.json</code>, and resolves the container or a {@link Text} for a {@link Locale} or a player.</p>
+ * <pre>
+ *      var registry = new LanguageRegistry&lt;&gt;(loader, languageDirectory, MyLanguage.class, Locale.US, MyLanguage::new)
+ *              .fallback(Locale.TAIWAN, Locale.SIMPLIFIED_CHINESE, Locale.US);
+ *      registry.load();
+ *
+ *      //assume that there is a bukkit Player assigned to variable player
+ *      player.sendMessage(registry.text(player, language -&gt; language.myText).produceAsComponent());
+ *
+ *      //or by the dot separated path of the text, for scripts and commands
+ *      player.sendMessage(registry.text(player, "shop.purchase.success").produceAsComponent());
+ *  </pre>
+ * <p>Fallback chains are resolved while loading into a flat lookup table, a lookup is a single map hit in most cases.
+ * A locale without its own file and chain falls back to another locale of the same language, then to the default locale.</p>
+ * <p>The lookup table is an immutable snapshot replaced as a whole on every (re)load, see {@link #watch()} for hot reloading.
+ * It includes a {@link TextIndex} of every container, so a lookup by path is a hash table read per container of the chain.</p>
+ *
+ * @param <T> type of the language container
+ */
+public class LanguageRegistry<T> {
+    private static final String languageFileSuffix = ".json";
+
+    private final SimpleLanguageLoader loader;
+    private final File directory;
+    private final Class<T> type;
+    private final Locale defaultLocale;
+    private final Supplier<T> defaultSupplier;
+    private final Map<Locale, List<Locale>> fallbackChains = new LinkedHashMap<>();
+    private final Object reloadLock = new Object();
+    private volatile Snapshot<T> snapshot = Snapshot.empty();
+
+    /**
+     * Create a new registry, call {@link #load()} to load the language files.
+     *
+     * @param loader          loader used to read the language files
+     * @param directory       directory that contains the <code>&lt;locale&gt;.json</code> language files
+     * @param type            type of the language container
+     * @param defaultLocale   the locale used when nothing else matches
+     * @param defaultSupplier default constructor of the container, used to initialize the file of the default locale
+     */
+    public LanguageRegistry(SimpleLanguageLoader loader, File directory, Class<T> type, Locale defaultLocale, Supplier<T> defaultSupplier) {
+        this.loader = loader;
+        this.directory = directory;
+        this.type = type;
+        this.defaultLocale = defaultLocale;
+        this.defaultSupplier = defaultSupplier;
+    }
+
+    /**
+     * Configure the fallback chain of a locale, for example <code>zh_TW → zh_CN → en_US</code>.
+     * <p>The default locale is always the last resort and doesn't need to be listed.
+     * Takes effect on the next {@link #load()}.</p>
+     *
+     * @param locale    locale to configure
+     * @param fallbacks locales tried in order when <code>locale</code> has no language file or text
+     * @return this registry
+     */
+    public LanguageRegistry<T> fallback(Locale locale, Locale... fallbacks) {
+        synchronized (fallbackChains) {
+            fallbackChains.put(locale, List.of(fallbacks));
+        }
+        return this;
+    }
+
+    /**
+     * Load every language file in the directory and rebuild the lookup table.
+     * <p>The file of the default locale is initialized from the default supplier if it doesn't exist, keys added to the container since are appended to it.</p>
+     * <p>Loading again publishes the newly loaded containers, including keys added to the files since.
+     * A {@link Text} held by a caller is updated in place and shows the new content on its next render,
+     * see {@link TextWalker#adopt(Object, Object)}. Each text is swapped atomically, readers never lock.</p>
+     *
+     * @throws IOException if a language file cannot be read
+     */
+    public void load() throws IOException {
+        IGNORE_RESULT(directory.mkdirs());
+        var containers = new HashMap<Locale, T>();
+        containers.put(defaultLocale, loader.loadOrMerge(fileOf(defaultLocale), type, defaultSupplier));
+        var files = directory.listFiles((dir, name) -> name.endsWith(languageFileSuffix));
+        if (files != null) {
+            for (var file : files) {
+                var locale = localeOf(file);
+                if (!containers.containsKey(locale)) {
+                    var container = loader.loadFromFile(file, type);
+                    if (container != null) {
+                        containers.put(locale, container);
+                    }
+                }
+            }
+        }
+        publish(containers);
+    }
+
+    /**
+     * Re-parse some language files and publish the result, other locales are kept as they are.
+     * <p>A file that fails to load keeps its previous content and is reported to the error handler,
+     * a deleted file removes its locale unless it's the default locale.</p>
+     *
+     * @param files        changed language files
+     * @param errorHandler called with every file that fails to load
+     */
+    public void reload(Collection<File> files, BiConsumer<File, Exception> errorHandler) {
+        synchronized (reloadLock) {
+            var containers = new HashMap<>(snapshot.containers);
+            for (var file : files) {
+                var locale = localeOf(file);
+                try {
+                    var container = file.isFile() ? loader.loadFromFile(file, type) : null;
+                    if (container != null) {
+                        containers.put(locale, container);
+                    } else if (!locale.equals(defaultLocale)) {
+                        containers.remove(locale);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    errorHandler.accept(file, e);
+                }
+            }
+            publish(containers);
+        }
+    }
+
+    /**
+     * Watch the language directory, and reload changed language files off-thread.
+     * <p>Equals to {@link #watch(Executor, BiConsumer)} with the common fork/join pool, failures are logged.</p>
+     *
+     * @return the watcher, close it to stop watching
+     * @throws IOException if the directory cannot be watched
+     */
+    public LanguageWatcher watch() throws IOException {
+        return watch(ForkJoinPool.commonPool(), (file, exception) ->
+                Logger.getLogger(LanguageRegistry.class.getName()).log(Level.WARNING, "Failed to reload language file " + file, exception));
+    }
+
+    /**
+     * Watch the language directory, and reload changed language files off-thread.
+     * <p>Texts already held by callers are updated in place, see {@link #load()}.</p>
+     *
+     * @param executor     executor to parse the changed files on
+     * @param errorHandler called with every file that fails to load
+     * @return the watcher, close it to stop watching
+     * @throws IOException if the directory cannot be watched
+     */
+    public LanguageWatcher watch(Executor executor, BiConsumer<File, Exception> errorHandler) throws IOException {
+        return new LanguageWatcher(this, executor, errorHandler);
+    }
+
+    /**
+     * Rebuild the lookup table from loaded containers and publish it to readers at once.
+     * <p>The new containers are published as they are loaded, so new keys and entries are visible right away.
+     * Texts of the previous container of a locale at paths the new container still has are updated in place and
+     * carried over into the new container, so texts held by callers stay valid across any number of reloads.
+     * Lookups through the registry see either the previous or the new snapshot as a whole, while a text held
+     * across the reload is updated on its own.</p>
+     *
+     * @param containers loaded containers by locale
+     */
+    private void publish(Map<Locale, T> containers) {
+        synchronized (reloadLock) {
+            Map<Locale, List<Locale>> chains;
+            synchronized (fallbackChains) {
+                chains = new LinkedHashMap<>(fallbackChains);
+            }
+            var current = snapshot.containers;
+            containers.forEach((locale, container) -> {
+                var previous = current.get(locale);
+                if (previous != null && previous != container) {
+                    TextWalker.adopt(container, previous);
+                }
+            });
+            snapshot = Snapshot.resolve(containers, chains, defaultLocale);
+        }
+    }
+
+    /**
+     * Resolve the language container for a locale.
+     *
+     * @param locale the locale
+     * @return the container of the locale or its first available fallback
+     */
+    public T get(Locale locale) {
+        return snapshot.chainOf(locale).get(0);
+    }
+
+    /**
+     * Resolve the language container for the client locale of a player.
+     *
+     * @param player the player
+     * @return the container of the player locale or its first available fallback
+     */
+    public T get(Player player) {
+        return get(player.locale());
+    }
+
+    /**
+     * Resolve a text for a locale.
+     * <p>If the container of the locale doesn't have the text (the accessor returns null), its fallbacks are tried in order.</p>
+     *
+     * @param locale   the locale
+     * @param accessor text section of the container, usually looks like <code>language -&gt; language.myText</code>
+     * @return the resolved text, or null if no container has it
+     */
+    public Text text(Locale locale, Function<T, Text> accessor) {
+        var chain = snapshot.chainOf(locale);
+        for (var container : chain) {
+            var text = accessor.apply(container);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve a text for the client locale of a player.
+     *
+     * @param player   the player
+     * @param accessor text section of the container, usually looks like <code>language -&gt; language.myText</code>
+     * @return the resolved text, or null if no container has it
+     * @see #text(Locale, Function)
+     */
+    public Text text(Player player, Function<T, Text> accessor) {
+        return text(player.locale(), accessor);
+    }
+
+    /**
+     * Resolve a text for a locale by its dot separated path, like <code>shop.purchase.success</code>.
+     * <p>If the container of the locale doesn't have the text, its fallbacks are tried in order. See {@link TextIndex} for paths.</p>
+     *
+     * @param locale the locale
+     * @param key    the path of the text
+     * @return the resolved text, or null if no container has it
+     */
+    public Text text(Locale locale, String key) {
+        var current = snapshot;
+        for (var container : current.chainOf(locale)) {
+            var text = current.indexOf(container).get(key);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve a text for the client locale of a player by its dot separated path.
+     *
+     * @param player the player
+     * @param key    the path of the text
+     * @return the resolved text, or null if no container has it
+     * @see #text(Locale, String)
+     */
+    public Text text(Player player, String key) {
+        return text(player.locale(), key);
+    }
+
+    /**
+     * Get the index of the texts of a locale, without its fallbacks.
+     *
+     * @param locale the locale
+     * @return the index of the container of the locale or its first available fallback
+     */
+    public TextIndex index(Locale locale) {
+        var current = snapshot;
+        return current.indexOf(current.chainOf(locale).get(0));
+    }
+
+    /**
+     * @return the locales that have a loaded language file
+     */
+    public Set<Locale> locales() {
+        return snapshot.containers.keySet();
+    }
+
+    /**
+     * @return the default locale
+     */
+    public Locale defaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * @return the directory of the language files
+     */
+    public File directory() {
+        return directory;
+    }
+
+    File fileOf(Locale locale) {
+        return new File(directory, locale + languageFileSuffix);
+    }
+
+    /**
+     * Parse the locale from a language file name, both <code>zh_TW.json</code> and <code>zh-TW.json</code> are accepted.
+     *
+     * @param file the language file
+     * @return locale of the file
+     */
+    static Locale localeOf(File file) {
+        var name = file.getName();
+        return Locale.forLanguageTag(name.substring(0, name.length() - languageFileSuffix.length()).replace('_', '-'));
+    }
+
+    @SuppressWarnings("unused")
+    private void IGNORE_RESULT(Object o) {
+        //ignored
+    }
+
+    /**
+     * Immutable lookup table of a loaded registry, replaced as a whole on every load.
+     *
+     * @param containers containers by locale
+     * @param chains     resolved fallback chain of every known locale
+     * @param languages  resolved fallback chain of every known language, for locales that are not known
+     * @param defaults   fallback chain of the default locale
+     * @param indexes    index of every container, by identity
+     * @param <T>        type of the language container
+     */
+    private record Snapshot<T>(Map<Locale, T> containers, Map<Locale, List<T>> chains,
+                               Map<String, List<T>> languages, List<T> defaults, Map<T, TextIndex> indexes) {
+        private static final Snapshot<?> EMPTY = new Snapshot<>(Map.of(), Map.of(), Map.of(), Collections.singletonList(null), Map.of());
+
+        @SuppressWarnings("unchecked")
+        static <T> Snapshot<T> empty() {
+            return (Snapshot<T>) EMPTY;
+        }
+
+        static <T> Snapshot<T> resolve(Map<Locale, T> containers, Map<Locale, List<Locale>> fallbackChains, Locale defaultLocale) {
+            var defaults = resolveChain(defaultLocale, containers, fallbackChains, defaultLocale);
+            var chains = new HashMap<Locale, List<T>>();
+            var known = new TreeSet<Locale>(Comparator.comparing(Locale::toString));
+            known.addAll(containers.keySet());
+            known.addAll(fallbackChains.keySet());
+            for (var locale : known) {
+                chains.put(locale, resolveChain(locale, containers, fallbackChains, defaultLocale));
+            }
+            var languages = new HashMap<String, List<T>>();
+            for (var locale : known) {
+                var language = new Locale(locale.getLanguage());
+                // a file of the bare language wins, otherwise the first locale of the language in name order
+                languages.putIfAbsent(locale.getLanguage(), chains.getOrDefault(language, chains.get(locale)));
+            }
+            var indexes = new IdentityHashMap<T, TextIndex>(containers.size());
+            for (var container : containers.values()) {
+                indexes.put(container, TextIndex.of(container));
+            }
+            // never modified once published, so concurrent reads are safe
+            return new Snapshot<>(Map.copyOf(containers), Map.copyOf(chains), Map.copyOf(languages), defaults,
+                    Collections.unmodifiableMap(indexes));
+        }
+
+        private static <T> List<T> resolveChain(Locale locale, Map<Locale, T> containers, Map<Locale, List<Locale>> fallbackChains, Locale defaultLocale) {
+            var resolved = new ArrayList<T>();
+            var visited = new HashSet<Locale>();
+            var pending = new ArrayDeque<Locale>();
+            pending.add(locale);
+            while (!pending.isEmpty()) {
+                var next = pending.poll();
+                if (!visited.add(next)) {
+                    continue;
+                }
+                var container = containers.get(next);
+                if (container != null) {
+                    resolved.add(container);
+                }
+                // chains of the fallbacks are followed after the configured ones
+                pending.addAll(fallbackChains.getOrDefault(next, List.of()));
+            }
+            var defaultContainer = containers.get(defaultLocale);
+            if (defaultContainer != null && !resolved.contains(defaultContainer)) {
+                resolved.add(defaultContainer);
+            }
+            if (resolved.isEmpty()) {
+                resolved.add(null);
+            }
+            return Collections.unmodifiableList(resolved);
+        }
+
+        TextIndex indexOf(T container) {
+            var index = container == null ? null : indexes.get(container);
+            return index == null ? TextIndex.empty() : index;
+        }
+
+        List<T> chainOf(Locale locale) {
+            var chain = chains.get(locale);
+            if (chain == null) {
+                chain = languages.getOrDefault(locale.getLanguage(), defaults);
+            }
+            return chain;
+        }
+    }
+}
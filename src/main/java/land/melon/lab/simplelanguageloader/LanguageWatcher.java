@@ -0,0 +1,86 @@
+package land.melon.lab.simplelanguageloader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the directory of a {@link LanguageRegistry} and reloads changed language files.
+ * <p>Changes are collected on a daemon thread until the directory is quiet for a short while, since editors and
+ * upload tools usually write a file in several steps. The changed files are then re-parsed on the given executor
+ * and published by {@link LanguageRegistry#reload(java.util.Collection, BiConsumer)}, the main thread is never blocked.</p>
+ * <p>Created by {@link LanguageRegistry#watch(Executor, BiConsumer)}.</p>
+ */
+public final class LanguageWatcher implements Closeable {
+    private static final long quietPeriodMillis = 100;
+
+    private final LanguageRegistry<?> registry;
+    private final Path directory;
+    private final WatchService watchService;
+    private final Executor executor;
+    private final BiConsumer<File, Exception> errorHandler;
+
+    LanguageWatcher(LanguageRegistry<?> registry, Executor executor, BiConsumer<File, Exception> errorHandler) throws IOException {
+        this.registry = registry;
+        this.directory = registry.directory().toPath();
+        this.executor = executor;
+        this.errorHandler = errorHandler;
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        var thread = new Thread(this::watch, "SimpleLanguageLoader-Watcher-" + directory.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                var changed = new LinkedHashSet<File>();
+                collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                if (!changed.isEmpty()) {
+                    executor.execute(() -> registry.reload(changed, errorHandler));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<File> changed) {
+        for (var event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // events were lost, reload everything
+                var files = directory.toFile().listFiles((dir, name) -> name.endsWith(".json"));
+                if (files != null) {
+                    changed.addAll(Set.of(files));
+                }
+            } else if (event.context() instanceof Path name && name.toString().endsWith(".json")) {
+                changed.add(directory.resolve(name).toFile());
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Stop watching, reloads that are already submitted still complete.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -2,12 +2,24 @@ package land.melon.lab.simplelanguageloader;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import land.melon.lab.simplelanguageloader.components.LanguageBundle;
 import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.components.TextWalker;
+import land.melon.lab.simplelanguageloader.metrics.Instrumentation;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Functional main class of SimpleLanguageLoader package.
@@ -62,7 +74,14 @@ import java.util.function.Supplier;
  * <p>@see Text</p>
  */
 public class SimpleLanguageLoader {
+    private static final Logger logger = Logger.getLogger(SimpleLanguageLoader.class.getName());
+
     private final Gson gson;
+    /**
+     * parses texts without compiling their lines, which {@link #loadPackAsync(File, Type, Executor)} compiles in parallel afterwards
+     */
+    private final Gson lazyGson;
+    private final boolean lazyCompile;
 
     /**
      * Create a new SimpleLanguageLoader instance with default Gson instance.
@@ -88,11 +107,27 @@ public class SimpleLanguageLoader {
      * @param applyDefaultSettings apply <code>PrettyPrinting</code>, <code>Lenient</code> and <code>DisableHtmlEscaping</code>.
      */
     public SimpleLanguageLoader(GsonBuilder gsonBuilder, boolean applyDefaultSettings) {
-        var builder = gsonBuilder.registerTypeAdapter(Text.class, Text.gsonSerializer);
+        this(gsonBuilder, applyDefaultSettings, false);
+    }
+
+    /**
+     * Create a new SimpleLanguageLoader instance with specified Gson instance.
+     * <p>With <code>lazyCompile</code> enabled, loaded texts only keep their original strings, the expanded,
+     * colored and placeholder forms of each line are compiled on first use, see {@link Text#lazyOf(String...)}.
+     * Load time and memory then scale with the texts actually used instead of the size of the language file.</p>
+     *
+     * @param gsonBuilder          customized GsonBuilder to create Gson instance
+     * @param applyDefaultSettings apply <code>PrettyPrinting</code>, <code>Lenient</code> and <code>DisableHtmlEscaping</code>.
+     * @param lazyCompile          compile the lines of loaded texts on first use instead of while loading
+     */
+    public SimpleLanguageLoader(GsonBuilder gsonBuilder, boolean applyDefaultSettings, boolean lazyCompile) {
+        var builder = gsonBuilder.registerTypeAdapter(Text.class, lazyCompile ? Text.lazyGsonSerializer : Text.gsonSerializer);
         if (applyDefaultSettings) {
             builder.setPrettyPrinting().setLenient().disableHtmlEscaping();
         }
         this.gson = builder.create();
+        this.lazyGson = lazyCompile ? gson : gson.newBuilder().registerTypeAdapter(Text.class, Text.lazyGsonSerializer).create();
+        this.lazyCompile = lazyCompile;
     }
 
 
@@ -164,23 +199,58 @@ public class SimpleLanguageLoader {
      * @throws IOException if an I/O error occurs
      */
     public <T> T loadFromFile(File file, Type type) throws IOException {
-        IGNORE_RESULT(file.createNewFile());
-        var inputStream = new FileInputStream(file);
-        return gson.fromJson(new InputStreamReader(inputStream, StandardCharsets.UTF_8), type);
+        var start = System.nanoTime();
+        try {
+            T loaded = parseFile(file, type, gson);
+            Instrumentation.loaded(file, loaded, System.nanoTime() - start);
+            return loaded;
+        } catch (NoSuchFileException e) {
+            // an absent file is treated like an empty one
+            IGNORE_RESULT(file.createNewFile());
+            return null;
+        }
+    }
+
+    private static <T> T parseFile(File file, Type type, Gson gson) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8))) {
+            return gson.fromJson(reader, type);
+        }
     }
 
     /**
-     * Serialize an object to String, and save it to a file.
+     * Serialize an object, and save it to a file.
+     * <p>The json is streamed to a temporary file next to the target, without building it in memory, and compared with
+     * the target chunk by chunk. If the target already contains exactly the serialized bytes, the temporary file is
+     * deleted and the target is left untouched. Otherwise the temporary file is synced to disk and atomically moved
+     * into place, so a crash in the middle of a save never leaves a truncated file behind.</p>
      *
      * @param file   file to be saved
      * @param object object to be serialized
      * @throws IOException if an I/O error occurs
      */
     public void saveToFile(File file, Object object) throws IOException {
-        var jsonString = this.getJsonString(object);
-        var outputStream = new FileOutputStream(file);
-        outputStream.write(jsonString.getBytes(StandardCharsets.UTF_8));
-        outputStream.close();
+        var target = file.toPath().toAbsolutePath();
+        // not Files.createTempFile, which would restrict the permissions of the saved file to its owner
+        var temporary = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                // not closed by itself, the channel is still needed to sync once the content is known to differ
+                var writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+                gson.toJson(object, writer);
+                writer.flush();
+                if (Files.isRegularFile(target) && Files.mismatch(temporary, target) == -1) {
+                    return;
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
     }
 
     /**
@@ -217,7 +287,7 @@ public class SimpleLanguageLoader {
     /**
      * <p>attempt to load an object from file</p>
      * <p>create new file and return value constructed by supplier</p>
-     * <p>write the serialized object to file immediately while loading</p>
+     * <p>write the serialized object to file immediately while loading, unless the file content is unchanged</p>
      *
      * @param file     file to be read
      * @param type     type of the object
@@ -235,7 +305,7 @@ public class SimpleLanguageLoader {
     /**
      * <p>attempt to load an object from file</p>
      * <p>create new file and return value constructed by supplier</p>
-     * <p>write the serialized object to file immediately while loading</p>
+     * <p>write the serialized object to file immediately while loading, unless the file content is unchanged</p>
      *
      * @param file     file to be read
      * @param type     type of the object
@@ -249,6 +319,444 @@ public class SimpleLanguageLoader {
         return loaded;
     }
 
+    /**
+     * <p>attempt to load an object from file, adding the keys missing in the file from the object constructed by supplier</p>
+     * <p>Unlike {@link #loadOrInitialize(File, Type, Supplier)}, the file is not rewritten from the loaded object:
+     * keys of the default object missing in the file, at any depth, are appended to the file with their default values,
+     * while the existing keys keep their order, values and any keys unknown to the object.
+     * The file is only written if keys were added, or if it doesn't exist or is empty.</p>
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param <T>      type of the object
+     * @return deserialized object
+     * @throws IOException if the file is corrupted or cannot be read
+     */
+    public <T> T loadOrMerge(File file, Type type, Supplier<T> supplier) throws IOException {
+        var start = System.nanoTime();
+        JsonElement existing;
+        try (var reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8))) {
+            existing = gson.fromJson(reader, JsonElement.class);
+        } catch (NoSuchFileException e) {
+            existing = null;
+        }
+        if (existing == null || existing.isJsonNull()) {
+            var constructed = supplier.get();
+            Instrumentation.loaded(file, constructed, System.nanoTime() - start);
+            saveToFile(file, constructed);
+            return constructed;
+        }
+        var added = mergeMissingKeys(existing, gson.toJsonTree(supplier.get()));
+        T loaded = gson.fromJson(existing, type);
+        Instrumentation.loaded(file, loaded, System.nanoTime() - start);
+        if (added > 0) {
+            saveToFile(file, existing);
+        }
+        return loaded;
+    }
+
+    /**
+     * <p>attempt to load an object from file, adding the keys missing in the file from the object constructed by supplier</p>
+     * <p>Equals to {@link #loadOrMerge(File, Type, Supplier)}</p>
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param <T>      type of the object
+     * @return deserialized object
+     * @throws IOException if the file is corrupted or cannot be read
+     */
+    public <T> T loadOrMerge(File file, Class<T> type, Supplier<T> supplier) throws IOException {
+        return loadOrMerge(file, (Type) type, supplier);
+    }
+
+    /**
+     * Add the object members of the defaults missing in the target, recursively, existing members are kept.
+     *
+     * @return number of members added
+     */
+    private static int mergeMissingKeys(JsonElement target, JsonElement defaults) {
+        if (!target.isJsonObject() || !defaults.isJsonObject()) {
+            return 0;
+        }
+        var targetObject = target.getAsJsonObject();
+        var added = 0;
+        for (var entry : defaults.getAsJsonObject().entrySet()) {
+            var existing = targetObject.get(entry.getKey());
+            if (existing == null) {
+                targetObject.add(entry.getKey(), entry.getValue());
+                added++;
+            } else {
+                added += mergeMissingKeys(existing, entry.getValue());
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Compile a json language file to a binary bundle, which loads without parsing json or compiling texts.
+     *
+     * @param file   json file to be compiled
+     * @param bundle bundle file to be written
+     * @throws IOException if an I/O error occurs or the json is malformed
+     * @see LanguageBundle
+     */
+    public void compileBundle(File file, File bundle) throws IOException {
+        LanguageBundle.compile(file, bundle);
+    }
+
+    /**
+     * Load an object from the compiled bundle of a json file, or from the json file itself if the bundle is stale.
+     * <p>The bundle is used only if it was compiled from the current content of the json file.
+     * Otherwise, including when the bundle is missing or corrupted, the json file is loaded like
+     * {@link #loadFromFile(File, Type)} and the bundle is compiled again for the next load from the json already read.
+     * A corrupted bundle, or a bundle that can't be written, is logged and doesn't fail the load.</p>
+     *
+     * @param file   json file to be read
+     * @param bundle compiled bundle of the json file
+     * @param type   type of the object
+     * @param <T>    type of the object
+     * @return deserialized object
+     * @throws IOException if an I/O error occurs while reading the json file
+     */
+    public <T> T loadWithBundle(File file, File bundle, Type type) throws IOException {
+        if (bundle.isFile()) {
+            try {
+                var start = System.nanoTime();
+                var compiled = LanguageBundle.open(bundle);
+                if (compiled.isCompiledFrom(file)) {
+                    T loaded = compiled.load(gson, type);
+                    Instrumentation.loaded(bundle, loaded, System.nanoTime() - start);
+                    return loaded;
+                }
+            } catch (IOException | RuntimeException e) {
+                // a corrupted bundle may only show up while decoding its strings and tokens, it's compiled again below
+                logger.log(Level.WARNING, "Language bundle " + bundle + " is corrupted, loading " + file + " instead", e);
+            }
+        }
+        var start = System.nanoTime();
+        byte[] source;
+        try {
+            source = Files.readAllBytes(file.toPath());
+        } catch (NoSuchFileException e) {
+            // an absent file is treated like an empty one
+            IGNORE_RESULT(file.createNewFile());
+            source = new byte[0];
+        }
+        var tree = LanguageBundle.parse(source);
+        T loaded = gson.fromJson(tree, type);
+        Instrumentation.loaded(file, loaded, System.nanoTime() - start);
+        try {
+            LanguageBundle.compile(source, tree, bundle);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to compile language bundle " + bundle + ", it will be compiled on the next load", e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Read json from a file, and deserialize it to an Object on the default executor.
+     * <p>The default executor runs every task on a new virtual thread on Java 21 and above,
+     * and on a shared pool of daemon threads otherwise.</p>
+     *
+     * @param file file to be read
+     * @param type type of the object
+     * @param <T>  type of the object
+     * @return future of the deserialized object
+     * @see #loadFromFile(File, Type)
+     */
+    public <T> CompletableFuture<T> loadFromFileAsync(File file, Type type) {
+        return loadFromFileAsync(file, type, defaultExecutor());
+    }
+
+    /**
+     * Read json from a file, and deserialize it to an Object on the given executor.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param executor executor to run the I/O on
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadFromFile(File, Type)
+     */
+    public <T> CompletableFuture<T> loadFromFileAsync(File file, Type type, Executor executor) {
+        return supplyAsync(() -> loadFromFile(file, type), executor);
+    }
+
+    /**
+     * Read many json files in parallel on the default executor, and deserialize them to Objects of the same type.
+     *
+     * @param files files to be read
+     * @param type  type of the objects
+     * @param <T>   type of the objects
+     * @return future of the deserialized objects by file, in the order of <code>files</code>
+     * @see #loadFromFileAsync(File, Type)
+     */
+    public <T> CompletableFuture<Map<File, T>> loadAllAsync(Collection<File> files, Type type) {
+        return loadAllAsync(files, type, defaultExecutor());
+    }
+
+    /**
+     * Read many json files in parallel on the given executor, and deserialize them to Objects of the same type.
+     * <p>The future fails if any of the files fails to load.</p>
+     *
+     * @param files    files to be read
+     * @param type     type of the objects
+     * @param executor executor to run the I/O on
+     * @param <T>      type of the objects
+     * @return future of the deserialized objects by file, in the order of <code>files</code>
+     */
+    public <T> CompletableFuture<Map<File, T>> loadAllAsync(Collection<File> files, Type type, Executor executor) {
+        var futures = new LinkedHashMap<File, CompletableFuture<T>>();
+        for (var file : files) {
+            futures.put(file, loadFromFileAsync(file, type, executor));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            var loaded = new LinkedHashMap<File, T>();
+            futures.forEach((file, future) -> loaded.put(file, future.join()));
+            return loaded;
+        });
+    }
+
+    /**
+     * Load every json file of a directory tree in parallel on the default executor, see {@link #loadPackAsync(File, Type, Executor)}.
+     *
+     * @param directory root directory of the language pack
+     * @param type      type of the objects
+     * @param <T>       type of the objects
+     * @return future of the loaded pack
+     */
+    public <T> CompletableFuture<LanguagePack<T>> loadPackAsync(File directory, Type type) {
+        return loadPackAsync(directory, type, defaultExecutor());
+    }
+
+    /**
+     * Load every json file of a directory tree in parallel on the given executor, and deserialize them to Objects of the same type.
+     * <p>Each file is parsed by a task of its own. Unless this loader compiles lazily, the lines of each file are then
+     * compiled in parallel chunks, so a single large file is spread over the cores as well, see {@link TextWalker#compile(Object, ForkJoinPool)}.
+     * The chunks run on the executor if it is a {@link ForkJoinPool}, and on the common pool otherwise,
+     * which suits a virtual thread executor for the I/O.</p>
+     * <p>Unlike {@link #loadAllAsync(Collection, Type, Executor)}, a file failing to load doesn't fail the future,
+     * its error is collected into the pack. Empty files are skipped. The future only fails if the directory tree cannot be listed.</p>
+     *
+     * @param directory root directory of the language pack
+     * @param type      type of the objects
+     * @param executor  executor to run the I/O and the compilation on
+     * @param <T>       type of the objects
+     * @return future of the loaded pack
+     */
+    public <T> CompletableFuture<LanguagePack<T>> loadPackAsync(File directory, Type type, Executor executor) {
+        var pool = executor instanceof ForkJoinPool forkJoinPool ? forkJoinPool : ForkJoinPool.commonPool();
+        return supplyAsync(() -> listLanguageFiles(directory), executor).thenCompose(files -> {
+            var futures = new LinkedHashMap<File, CompletableFuture<T>>();
+            for (var file : files) {
+                futures.put(file, supplyAsync(() -> loadPackFile(file, type, pool), executor));
+            }
+            // completes when every file is done, whether it failed or not
+            return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).handle((ignored, error) -> {
+                var loaded = new LinkedHashMap<File, T>();
+                var errors = new LinkedHashMap<File, Exception>();
+                futures.forEach((file, future) -> {
+                    try {
+                        var value = future.join();
+                        if (value != null) {
+                            loaded.put(file, value);
+                        }
+                    } catch (CompletionException e) {
+                        errors.put(file, unwrap(e));
+                    }
+                });
+                return new LanguagePack<>(Collections.unmodifiableMap(loaded), Collections.unmodifiableMap(errors));
+            });
+        });
+    }
+
+    private <T> T loadPackFile(File file, Type type, ForkJoinPool pool) throws IOException {
+        var start = System.nanoTime();
+        T loaded = parseFile(file, type, lazyGson);
+        if (!lazyCompile && loaded != null) {
+            TextWalker.compile(loaded, pool);
+        }
+        Instrumentation.loaded(file, loaded, System.nanoTime() - start);
+        return loaded;
+    }
+
+    private static List<File> listLanguageFiles(File directory) throws IOException {
+        try (var paths = Files.walk(directory.toPath())) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".json") && Files.isRegularFile(path))
+                    .sorted()
+                    .map(Path::toFile)
+                    .toList();
+        }
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        var cause = e.getCause();
+        if (cause instanceof UncheckedIOException unchecked) {
+            return unchecked.getCause();
+        }
+        return cause instanceof Exception exception ? exception : e;
+    }
+
+    /**
+     * Serialize an object, and save it to a file on the default executor.
+     *
+     * @param file   file to be saved
+     * @param object object to be serialized
+     * @return future completed when the file is saved
+     * @see #saveToFile(File, Object)
+     */
+    public CompletableFuture<Void> saveToFileAsync(File file, Object object) {
+        return saveToFileAsync(file, object, defaultExecutor());
+    }
+
+    /**
+     * Serialize an object, and save it to a file on the given executor.
+     *
+     * @param file     file to be saved
+     * @param object   object to be serialized
+     * @param executor executor to run the I/O on
+     * @return future completed when the file is saved
+     * @see #saveToFile(File, Object)
+     */
+    public CompletableFuture<Void> saveToFileAsync(File file, Object object, Executor executor) {
+        return supplyAsync(() -> {
+            saveToFile(file, object);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Load an object from file on the default executor, or construct it by supplier if the file doesn't exist or is empty.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrConstruct(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrConstructAsync(File file, Type type, Supplier<T> supplier) {
+        return loadOrConstructAsync(file, type, supplier, defaultExecutor());
+    }
+
+    /**
+     * Load an object from file on the given executor, or construct it by supplier if the file doesn't exist or is empty.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param executor executor to run the I/O on
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrConstruct(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrConstructAsync(File file, Type type, Supplier<T> supplier, Executor executor) {
+        return supplyAsync(() -> loadOrConstruct(file, type, supplier), executor);
+    }
+
+    /**
+     * Load an object from file on the default executor, and write it back to the file if its serialized form changed.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrInitialize(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrInitializeAsync(File file, Type type, Supplier<T> supplier) {
+        return loadOrInitializeAsync(file, type, supplier, defaultExecutor());
+    }
+
+    /**
+     * Load an object from file on the given executor, and write it back to the file if its serialized form changed.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param executor executor to run the I/O on
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrInitialize(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrInitializeAsync(File file, Type type, Supplier<T> supplier, Executor executor) {
+        return supplyAsync(() -> loadOrInitialize(file, type, supplier), executor);
+    }
+
+    /**
+     * Load an object from file on the default executor, adding the keys missing in the file.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrMerge(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrMergeAsync(File file, Type type, Supplier<T> supplier) {
+        return loadOrMergeAsync(file, type, supplier, defaultExecutor());
+    }
+
+    /**
+     * Load an object from file on the given executor, adding the keys missing in the file.
+     *
+     * @param file     file to be read
+     * @param type     type of the object
+     * @param supplier default constructor
+     * @param executor executor to run the I/O on
+     * @param <T>      type of the object
+     * @return future of the deserialized object
+     * @see #loadOrMerge(File, Type, Supplier)
+     */
+    public <T> CompletableFuture<T> loadOrMergeAsync(File file, Type type, Supplier<T> supplier, Executor executor) {
+        return supplyAsync(() -> loadOrMerge(file, type, supplier), executor);
+    }
+
+    /**
+     * Get the executor used by the async methods without an executor parameter.
+     * <p>It runs every task on a new virtual thread on Java 21 and above, and on a shared pool of daemon threads otherwise.</p>
+     *
+     * @return the default executor
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.executor;
+    }
+
+    private static <T> CompletableFuture<T> supplyAsync(IOSupplier<T> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return supplier.get();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @FunctionalInterface
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final Executor executor = createDefaultExecutor();
+
+        private static Executor createDefaultExecutor() {
+            try {
+                // virtual threads are only available on Java 21+, while this library targets Java 17
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                var threadCount = new AtomicInteger();
+                return Executors.newCachedThreadPool(runnable -> {
+                    var thread = new Thread(runnable, "SimpleLanguageLoader-IO-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
     @SuppressWarnings("unused")
     private void IGNORE_RESULT(Object o) {
         //ignored
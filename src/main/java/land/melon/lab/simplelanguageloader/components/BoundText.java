@@ -0,0 +1,234 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Text} with the placeholder values shared by many renders filled in once, created by {@link Text#bind(Placeholders)}.
+ * <p>Only the remaining placeholders are filled on each render, which makes it suitable to render one text for many
+ * recipients, like a personalized broadcast:</p>
+ * <pre>
+ *     language.joinMessage.bind(Pair.of("server", serverName))
+ *          .sendAll(Bukkit.getOnlinePlayers(), (player, values) -&gt; values.set("player", player.getName()));
+ * </pre>
+ * <p>Values of the remaining placeholders for keys filled by the shared values are ignored.
+ * A bound text keeps the lines its text had when it was bound, it's meant to be short-lived and doesn't follow hot reloads.</p>
+ * <p>A bound text is immutable and thread safe, the batch methods may split the recipients across a {@link ForkJoinPool}.</p>
+ */
+public final class BoundText {
+    /**
+     * recipients rendered by a single task when split across a pool
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private final List<TextLine> lines;
+    private final Placeholders shared;
+    private final TextTemplate[] templates;
+    private volatile ComponentTemplate[] componentTemplates;
+
+    BoundText(List<TextLine> lines, Placeholders shared) {
+        this.lines = lines;
+        this.shared = shared;
+        this.templates = new TextTemplate[lines.size()];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = lines.get(i).template().bind(shared);
+        }
+    }
+
+    /**
+     * Get the text replaced the remaining placeholders, joint to one string.
+     *
+     * @param placeholders values of the remaining placeholders
+     * @return the texts replaced placeholders
+     */
+    public String produce(Placeholders placeholders) {
+        if (templates.length == 1) {
+            return templates[0].render(placeholders);
+        }
+        var capacity = templates.length;
+        for (var template : templates) {
+            capacity += template.estimatedLength();
+        }
+        var builder = new StringBuilder(capacity);
+        for (int i = 0; i < templates.length; i++) {
+            if (i != 0) {
+                builder.append('\n');
+            }
+            templates[i].renderTo(builder, placeholders);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the text replaced the remaining placeholders as an Adventure Component, lines are joint with {@link Component#newline()}.
+     *
+     * @param placeholders values of the remaining placeholders
+     * @return the component replaced placeholders
+     */
+    public Component produceAsComponent(Placeholders placeholders) {
+        var components = componentTemplates();
+        if (components.length == 1) {
+            return components[0].render(placeholders);
+        }
+        var resultBuilder = Component.text();
+        for (int lineIndex = 0; lineIndex < components.length; lineIndex++) {
+            resultBuilder.append(components[lineIndex].render(placeholders));
+            if (lineIndex != components.length - 1) {
+                resultBuilder.append(Component.newline());
+            }
+        }
+        return resultBuilder.build();
+    }
+
+    /**
+     * Render the text for every recipient.
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient
+     * @param <R>        type of the recipients
+     * @return the rendered texts, in the iteration order of the recipients
+     */
+    public <R> List<String> produceAll(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments) {
+        return produceAll(recipients, arguments, null);
+    }
+
+    /**
+     * Render the text for every recipient, split across a pool.
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient, called from the threads of the pool
+     * @param pool       the pool to render on, or null to render on the current thread
+     * @param <R>        type of the recipients
+     * @return the rendered texts, in the iteration order of the recipients
+     */
+    public <R> List<String> produceAll(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments, ForkJoinPool pool) {
+        var results = new String[recipients.size()];
+        forEach(recipients, pool, (recipient, index, values) -> {
+            arguments.accept(recipient, values);
+            results[index] = produce(values);
+        });
+        return List.of(results);
+    }
+
+    /**
+     * Render the text as an Adventure Component for every recipient.
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient
+     * @param <R>        type of the recipients
+     * @return the rendered components, in the iteration order of the recipients
+     */
+    public <R> List<Component> produceAllAsComponents(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments) {
+        return produceAllAsComponents(recipients, arguments, null);
+    }
+
+    /**
+     * Render the text as an Adventure Component for every recipient, split across a pool.
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient, called from the threads of the pool
+     * @param pool       the pool to render on, or null to render on the current thread
+     * @param <R>        type of the recipients
+     * @return the rendered components, in the iteration order of the recipients
+     */
+    public <R> List<Component> produceAllAsComponents(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments, ForkJoinPool pool) {
+        var results = new Component[recipients.size()];
+        forEach(recipients, pool, (recipient, index, values) -> {
+            arguments.accept(recipient, values);
+            results[index] = produceAsComponent(values);
+        });
+        return List.of(results);
+    }
+
+    /**
+     * Render the text as an Adventure Component for every recipient and send it to them.
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient
+     * @param <R>        type of the recipients
+     */
+    public <R extends Audience> void sendAll(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments) {
+        sendAll(recipients, arguments, null);
+    }
+
+    /**
+     * Render the text as an Adventure Component for every recipient and send it to them, split across a pool.
+     * <p>Messages are sent from the threads of the pool, which is fine for Paper players.</p>
+     *
+     * @param recipients the recipients
+     * @param arguments  fills the values of the remaining placeholders for a recipient, called from the threads of the pool
+     * @param pool       the pool to render and send on, or null to do it on the current thread
+     * @param <R>        type of the recipients
+     */
+    public <R extends Audience> void sendAll(Collection<? extends R> recipients, BiConsumer<? super R, Placeholders> arguments, ForkJoinPool pool) {
+        forEach(recipients, pool, (recipient, index, values) -> {
+            arguments.accept(recipient, values);
+            recipient.sendMessage(produceAsComponent(values));
+        });
+    }
+
+    private ComponentTemplate[] componentTemplates() {
+        var components = componentTemplates;
+        if (components == null) {
+            // racy but idempotent, the templates are immutable once built
+            components = new ComponentTemplate[lines.size()];
+            for (int i = 0; i < components.length; i++) {
+                components[i] = lines.get(i).template().componentTemplate().bind(shared);
+            }
+            componentTemplates = components;
+        }
+        return components;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> void forEach(Collection<? extends R> recipients, ForkJoinPool pool, RecipientTask<R> task) {
+        var array = (R[]) recipients.toArray();
+        if (pool == null || array.length <= BATCH_SIZE) {
+            runRange(array, 0, array.length, task);
+        } else {
+            pool.invoke(new RangeAction<>(array, 0, array.length, task));
+        }
+    }
+
+    private static <R> void runRange(R[] recipients, int from, int to, RecipientTask<R> task) {
+        var values = new Placeholders();
+        for (int i = from; i < to; i++) {
+            task.run(recipients[i], i, values.clear());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecipientTask<R> {
+        void run(R recipient, int index, Placeholders values);
+    }
+
+    private static final class RangeAction<R> extends RecursiveAction {
+        private final R[] recipients;
+        private final int from;
+        private final int to;
+        private final RecipientTask<R> task;
+
+        private RangeAction(R[] recipients, int from, int to, RecipientTask<R> task) {
+            this.recipients = recipients;
+            this.from = from;
+            this.to = to;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                runRange(recipients, from, to, task);
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new RangeAction<>(recipients, from, middle, task), new RangeAction<>(recipients, middle, to, task));
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Adventure {@link Component} form of a {@link TextTemplate}.
+ * <p>Literal segments are parsed from legacy text straight into styled fragments once and kept immutable,
+ * a render only fills the placeholder slots and joins the fragments. No legacy serializer is involved,
+ * and the expanded hex color codes become a {@link TextColor} directly.</p>
+ * <p>The style that is active at a slot is kept, so the literal following a placeholder and the placeholder value
+ * itself continue the style of the text before it, just like they did when the value was substituted into
+ * the legacy string. A value without section signs becomes a single text component of that style without parsing.</p>
+ */
+final class ComponentTemplate {
+    private static final char sectionSign = '§';
+    /**
+     * colors of the legacy codes <code>0</code> to <code>f</code>
+     */
+    private static final NamedTextColor[] legacyColors = {
+            NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+            NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+            NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+            NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+    /**
+     * decorations of the legacy codes <code>k</code> to <code>o</code>
+     */
+    private static final TextDecoration[] legacyDecorations = {
+            TextDecoration.OBFUSCATED, TextDecoration.BOLD, TextDecoration.STRIKETHROUGH,
+            TextDecoration.UNDERLINED, TextDecoration.ITALIC
+    };
+    /**
+     * length of <code>§x§R§R§G§G§B§B</code>
+     */
+    private static final int expandedHexCodeLength = 14;
+
+    /**
+     * deserialized literal segments, null for empty segments, always one more than {@link #placeholders}
+     */
+    private final Component[] literals;
+    private final String[] placeholders;
+    /**
+     * format of each placeholder, null for plain placeholders
+     */
+    private final PlaceholderFormat[] formats;
+    /**
+     * style active at each placeholder slot
+     */
+    private final Style[] slotStyles;
+    /**
+     * rendered form of each placeholder slot without a value
+     */
+    private final Component[] unresolved;
+
+    private ComponentTemplate(Component[] literals, String[] placeholders, PlaceholderFormat[] formats, Style[] slotStyles, Component[] unresolved) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.formats = formats;
+        this.slotStyles = slotStyles;
+        this.unresolved = unresolved;
+    }
+
+    /**
+     * Parse the literal segments of a template.
+     *
+     * @param literals literal segments of the template
+     * @param source   the template, which provides the placeholders
+     * @return the compiled component template
+     */
+    static ComponentTemplate compile(String[] literals, TextTemplate source) {
+        var placeholderCount = source.placeholderCount();
+        var components = new Component[literals.length];
+        var slotStyles = new Style[placeholderCount];
+        var fragments = new ArrayList<Component>();
+        var style = Style.empty();
+        for (int i = 0; i < literals.length; i++) {
+            style = parseLegacy(literals[i], style, fragments);
+            components[i] = join(fragments);
+            fragments.clear();
+            if (i < placeholderCount) {
+                slotStyles[i] = style;
+            }
+        }
+        return of(components, source, slotStyles);
+    }
+
+    /**
+     * Create a template from fragments styled elsewhere, like a parsed MiniMessage line.
+     *
+     * @param literals   literal fragments, null for empty ones, always one more than the placeholders
+     * @param source     the template of the same slots, which provides the placeholders
+     * @param slotStyles style active at each placeholder slot
+     * @return the component template
+     */
+    static ComponentTemplate of(Component[] literals, TextTemplate source, Style[] slotStyles) {
+        var unresolved = new Component[slotStyles.length];
+        for (int i = 0; i < slotStyles.length; i++) {
+            unresolved[i] = Component.text("{" + source.unresolved(i) + "}", slotStyles[i]);
+        }
+        return new ComponentTemplate(literals, source.placeholders(), source.formats(), slotStyles, unresolved);
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     * <p>{@link Component} values are inserted as is, other values are formatted and parsed as legacy text.</p>
+     *
+     * @param pairs the pairs of placeholder and its value
+     * @return the rendered line
+     */
+    Component render(Pair<String, Object>[] pairs) {
+        if (placeholders.length == 0) {
+            return literals[0] == null ? Component.empty() : literals[0];
+        }
+        var builder = Component.text();
+        if (literals[0] != null) {
+            builder.append(literals[0]);
+        }
+        for (int i = 0; i < placeholders.length; i++) {
+            var pairIndex = TextTemplate.indexOf(placeholders[i], pairs);
+            if (pairIndex < 0) {
+                builder.append(unresolved[i]);
+            } else if (pairs[pairIndex].value() instanceof Component component) {
+                builder.append(component);
+            } else {
+                var valueBuilder = new StringBuilder();
+                TextTemplate.appendValue(valueBuilder, pairs[pairIndex].value(), formats[i]);
+                builder.append(valueOf(valueBuilder.toString(), slotStyles[i]));
+            }
+            if (literals[i + 1] != null) {
+                builder.append(literals[i + 1]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     * <p>{@link Component} values are inserted as is, other values are formatted and parsed as legacy text.</p>
+     *
+     * @param placeholders the placeholder values
+     * @return the rendered line
+     */
+    Component render(Placeholders placeholders) {
+        if (this.placeholders.length == 0) {
+            return literals[0] == null ? Component.empty() : literals[0];
+        }
+        var builder = Component.text();
+        if (literals[0] != null) {
+            builder.append(literals[0]);
+        }
+        for (int i = 0; i < this.placeholders.length; i++) {
+            var valueIndex = placeholders.indexOf(this.placeholders[i]);
+            builder.append(valueIndex < 0 ? unresolved[i] : valueOf(i, placeholders, valueIndex));
+            if (literals[i + 1] != null) {
+                builder.append(literals[i + 1]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Fill the placeholders which have a value, the others are kept as placeholders of the returned template.
+     * <p>The filled values are joint with the surrounding literals, rendering the returned template gives the same
+     * content as rendering this one with the given values added.</p>
+     *
+     * @param placeholders the placeholder values
+     * @return the template with the given values filled in
+     */
+    ComponentTemplate bind(Placeholders placeholders) {
+        if (this.placeholders.length == 0) {
+            return this;
+        }
+        var boundLiterals = new ArrayList<Component>(literals.length);
+        var boundPlaceholders = new ArrayList<String>(this.placeholders.length);
+        var boundFormats = new ArrayList<PlaceholderFormat>(this.placeholders.length);
+        var boundSlotStyles = new ArrayList<Style>(this.placeholders.length);
+        var boundUnresolved = new ArrayList<Component>(this.placeholders.length);
+        var fragments = new ArrayList<Component>();
+        if (literals[0] != null) {
+            fragments.add(literals[0]);
+        }
+        for (int i = 0; i < this.placeholders.length; i++) {
+            var valueIndex = placeholders.indexOf(this.placeholders[i]);
+            if (valueIndex < 0) {
+                boundLiterals.add(join(fragments));
+                fragments.clear();
+                boundPlaceholders.add(this.placeholders[i]);
+                boundFormats.add(formats[i]);
+                boundSlotStyles.add(slotStyles[i]);
+                boundUnresolved.add(unresolved[i]);
+            } else {
+                fragments.add(valueOf(i, placeholders, valueIndex));
+            }
+            if (literals[i + 1] != null) {
+                fragments.add(literals[i + 1]);
+            }
+        }
+        boundLiterals.add(join(fragments));
+        return new ComponentTemplate(boundLiterals.toArray(Component[]::new), boundPlaceholders.toArray(String[]::new),
+                boundFormats.toArray(PlaceholderFormat[]::new), boundSlotStyles.toArray(Style[]::new), boundUnresolved.toArray(Component[]::new));
+    }
+
+    /**
+     * @return the value of a slot, the component itself or the value parsed with the style active at the slot
+     */
+    private Component valueOf(int slot, Placeholders placeholders, int valueIndex) {
+        var component = placeholders.componentAt(valueIndex);
+        if (component != null) {
+            return component;
+        }
+        var valueBuilder = new StringBuilder();
+        placeholders.appendValue(valueBuilder, valueIndex, formats[slot]);
+        return valueOf(valueBuilder.toString(), slotStyles[slot]);
+    }
+
+    /**
+     * @return a formatted value as component, parsed as legacy text only if it contains section signs
+     */
+    private static Component valueOf(String value, Style style) {
+        if (value.indexOf(sectionSign) < 0) {
+            return Component.text(value, style);
+        }
+        var fragments = new ArrayList<Component>();
+        parseLegacy(value, style, fragments);
+        var component = join(fragments);
+        return component == null ? Component.empty() : component;
+    }
+
+    /**
+     * @return the fragments as one component, null if there are none
+     */
+    static Component join(List<Component> fragments) {
+        if (fragments.isEmpty()) {
+            return null;
+        }
+        if (fragments.size() == 1) {
+            return fragments.get(0);
+        }
+        var builder = Component.text();
+        for (var fragment : fragments) {
+            builder.append(fragment);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parse legacy text into styled fragments in a single scan.
+     * <p>A color code or reset replaces the style, a format code adds its decoration to it,
+     * like the legacy serializer does. Section signs not followed by a known code are kept as text.</p>
+     *
+     * @param text      legacy text
+     * @param style     style active before the text
+     * @param fragments receives a text component for every run of text between codes
+     * @return style active after the text
+     */
+    private static Style parseLegacy(String text, Style style, List<Component> fragments) {
+        var segmentStart = 0;
+        for (int i = text.indexOf(sectionSign); i >= 0 && i < text.length() - 1; i = text.indexOf(sectionSign, i + 1)) {
+            var code = Character.toLowerCase(text.charAt(i + 1));
+            var codeLength = 2;
+            Style next;
+            if (code == 'x' && isExpandedHexColor(text, i)) {
+                next = Style.style(TextColor.color(expandedHexColor(text, i)));
+                codeLength = expandedHexCodeLength;
+            } else if (code >= '0' && code <= '9') {
+                next = Style.style(legacyColors[code - '0']);
+            } else if (code >= 'a' && code <= 'f') {
+                next = Style.style(legacyColors[code - 'a' + 10]);
+            } else if (code >= 'k' && code <= 'o') {
+                next = style.decoration(legacyDecorations[code - 'k'], true);
+            } else if (code == 'r') {
+                next = Style.empty();
+            } else {
+                continue;
+            }
+            if (segmentStart < i) {
+                fragments.add(Component.text(text.substring(segmentStart, i), style));
+            }
+            style = next;
+            segmentStart = i + codeLength;
+            i = segmentStart - 1;
+        }
+        if (segmentStart < text.length()) {
+            fragments.add(Component.text(text.substring(segmentStart), style));
+        }
+        return style;
+    }
+
+    /**
+     * @return true if a color code looks like <code>§x§R§R§G§G§B§B</code> starts at the index
+     */
+    private static boolean isExpandedHexColor(String text, int index) {
+        if (index + expandedHexCodeLength > text.length()) {
+            return false;
+        }
+        for (int i = index + 2; i < index + expandedHexCodeLength; i += 2) {
+            if (text.charAt(i) != sectionSign || Character.digit(text.charAt(i + 1), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the rgb value of the <code>§x§R§R§G§G§B§B</code> code starting at the index
+     */
+    private static int expandedHexColor(String text, int index) {
+        var rgb = 0;
+        for (int i = index + 3; i < index + expandedHexCodeLength; i += 2) {
+            rgb = rgb << 4 | Character.digit(text.charAt(i), 16);
+        }
+        return rgb;
+    }
+}
@@ -0,0 +1,433 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import com.google.gson.*;
+import land.melon.lab.simplelanguageloader.utils.ColorConverter;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * Precompiled binary form of a json language file, which loads without parsing json or compiling texts.
+ * <p>A bundle contains an interned table of every string of the json file, the json structure as a compact token
+ * stream referring to the table, and every string value compiled ahead of time as a text line: its expanded and
+ * colored forms and the offsets of its placeholder slots.</p>
+ * <p>A bundle is memory-mapped when opened and remembers the length and CRC32C checksum of the json file it was
+ * compiled from, use {@link #isCompiledFrom(File)} to check that it's not stale before {@link #load(Gson, Type)}.
+ * Opening only reads the header, strings and lines are decoded from the mapped file on first use and cached.</p>
+ *
+ * @see land.melon.lab.simplelanguageloader.SimpleLanguageLoader#loadWithBundle(File, File, Type)
+ */
+public final class LanguageBundle {
+    private static final int magic = 0x534C4C42; // SLLB
+    /**
+     * version 2 stores the slots of plural placeholders, which contain nested braces,
+     * version 3 adds offset tables so strings and lines can be decoded lazily
+     */
+    private static final short formatVersion = 3;
+    private static final int NO_LINE = -1;
+
+    private static final byte BEGIN_OBJECT = 1;
+    private static final byte END_OBJECT = 2;
+    private static final byte BEGIN_ARRAY = 3;
+    private static final byte END_ARRAY = 4;
+    private static final byte NAME = 5;
+    private static final byte STRING = 6;
+    private static final byte NUMBER = 7;
+    private static final byte TRUE = 8;
+    private static final byte FALSE = 9;
+    private static final byte NULL = 10;
+
+    private static final byte EXPANDED_DIFFERS = 1;
+    private static final byte COLORED_DIFFERS = 2;
+
+    private final long sourceLength;
+    private final int sourceChecksum;
+    /**
+     * offset of every string in {@link #stringData}, by string index
+     */
+    private final ByteBuffer stringOffsets;
+    /**
+     * offset of the compiled line of every string in {@link #lineData}, by string index, {@link #NO_LINE} for strings that are not values
+     */
+    private final ByteBuffer lineOffsets;
+    private final ByteBuffer stringData;
+    private final ByteBuffer lineData;
+    private final ByteBuffer tokens;
+    /**
+     * strings and lines decoded so far, filled racily since decoding is idempotent and the results are immutable
+     */
+    private final String[] strings;
+    private final TextLine[] lines;
+
+    private LanguageBundle(long sourceLength, int sourceChecksum, int stringCount, ByteBuffer stringOffsets, ByteBuffer lineOffsets,
+                           ByteBuffer stringData, ByteBuffer lineData, ByteBuffer tokens) {
+        this.sourceLength = sourceLength;
+        this.sourceChecksum = sourceChecksum;
+        this.stringOffsets = stringOffsets;
+        this.lineOffsets = lineOffsets;
+        this.stringData = stringData;
+        this.lineData = lineData;
+        this.tokens = tokens;
+        this.strings = new String[stringCount];
+        this.lines = new TextLine[stringCount];
+    }
+
+    /**
+     * Compile a json language file to a bundle.
+     * <p>The bundle is written to a temporary file first and then moved into place.</p>
+     *
+     * @param source the json language file
+     * @param bundle the bundle file to be written
+     * @throws IOException if an I/O error occurs or the json is malformed
+     */
+    public static void compile(File source, File bundle) throws IOException {
+        var sourceBytes = Files.readAllBytes(source.toPath());
+        compile(sourceBytes, parse(sourceBytes), bundle);
+    }
+
+    /**
+     * Parse the content of a json language file leniently, like gson does.
+     *
+     * @param source content of the json language file
+     * @return the json tree, {@link JsonNull} if the content is empty
+     * @throws JsonParseException if the json is malformed
+     */
+    public static JsonElement parse(byte[] source) {
+        return JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compile the already parsed content of a json language file to a bundle, without reading or parsing it again.
+     * <p>The bundle is written to a temporary file first and then moved into place.</p>
+     *
+     * @param source content of the json language file, for the staleness check of {@link #isCompiledFrom(File)}
+     * @param tree   the json tree parsed from the content by {@link #parse(byte[])}
+     * @param bundle the bundle file to be written
+     * @throws IOException if an I/O error occurs
+     */
+    public static void compile(byte[] source, JsonElement tree, File bundle) throws IOException {
+        var table = new LinkedHashMap<String, Integer>();
+        var tokenBytes = new ByteArrayOutputStream(source.length / 4);
+        var tokenOutput = new DataOutputStream(tokenBytes);
+        var values = new LinkedHashSet<Integer>();
+        if (!tree.isJsonNull()) {
+            writeTokens(tree, tokenOutput, table, values);
+        }
+
+        // compile every string value as a text line, the expanded and colored forms go to the table as well
+        var compiledLines = new ByteArrayOutputStream();
+        var compiledOutput = new DataOutputStream(compiledLines);
+        var originals = table.keySet().toArray(String[]::new);
+        var lineOffsetByIndex = new HashMap<Integer, Integer>();
+        for (var index : values) {
+            lineOffsetByIndex.put(index, compiledLines.size());
+            var original = originals[index];
+            var converted = ColorConverter.convertColorCodes(original);
+            var expandedDiffers = !converted.key().equals(original);
+            var coloredDiffers = !converted.value().equals(original);
+            compiledOutput.writeByte((expandedDiffers ? EXPANDED_DIFFERS : 0) | (coloredDiffers ? COLORED_DIFFERS : 0));
+            if (expandedDiffers) {
+                compiledOutput.writeInt(intern(table, converted.key()));
+            }
+            if (coloredDiffers) {
+                compiledOutput.writeInt(intern(table, converted.value()));
+            }
+            var slotBounds = TextTemplate.slotBounds(converted.value());
+            compiledOutput.writeInt(slotBounds.length);
+            for (var bound : slotBounds) {
+                compiledOutput.writeInt(bound);
+            }
+        }
+
+        var stringData = new ByteArrayOutputStream();
+        var stringOutput = new DataOutputStream(stringData);
+        var stringOffsets = new int[table.size()];
+        var lineOffsets = new int[table.size()];
+        var index = 0;
+        for (var string : table.keySet()) {
+            var bytes = string.getBytes(StandardCharsets.UTF_8);
+            stringOffsets[index] = stringData.size();
+            lineOffsets[index] = lineOffsetByIndex.getOrDefault(index, NO_LINE);
+            stringOutput.writeInt(bytes.length);
+            stringOutput.write(bytes);
+            index++;
+        }
+
+        var target = bundle.toPath().toAbsolutePath();
+        var temporary = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary, StandardOpenOption.CREATE_NEW)))) {
+                output.writeInt(magic);
+                output.writeShort(formatVersion);
+                output.writeLong(source.length);
+                output.writeInt(checksum(ByteBuffer.wrap(source)));
+                output.writeInt(table.size());
+                for (var offset : stringOffsets) {
+                    output.writeInt(offset);
+                }
+                for (var offset : lineOffsets) {
+                    output.writeInt(offset);
+                }
+                output.writeInt(stringData.size());
+                stringData.writeTo(output);
+                output.writeInt(compiledLines.size());
+                compiledLines.writeTo(output);
+                output.writeInt(tokenBytes.size());
+                tokenBytes.writeTo(output);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Memory-map and open a bundle, only the header is read.
+     *
+     * @param bundle the bundle file
+     * @return the opened bundle
+     * @throws IOException if an I/O error occurs or the file is not a valid bundle of this version
+     */
+    public static LanguageBundle open(File bundle) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(bundle.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != magic || buffer.getShort() != formatVersion) {
+                throw new IOException(bundle + " is not a language bundle of version " + formatVersion);
+            }
+            var sourceLength = buffer.getLong();
+            var sourceChecksum = buffer.getInt();
+            var stringCount = buffer.getInt();
+            var stringOffsets = section(buffer, Math.multiplyExact(stringCount, Integer.BYTES));
+            var lineOffsets = section(buffer, Math.multiplyExact(stringCount, Integer.BYTES));
+            var stringData = section(buffer, buffer.getInt());
+            var lineData = section(buffer, buffer.getInt());
+            var tokens = section(buffer, buffer.getInt());
+            return new LanguageBundle(sourceLength, sourceChecksum, stringCount, stringOffsets, lineOffsets, stringData, lineData, tokens);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ArithmeticException | NegativeArraySizeException e) {
+            throw new IOException(bundle + " is truncated or corrupted", e);
+        }
+    }
+
+    private static ByteBuffer section(ByteBuffer buffer, int length) {
+        var section = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return section;
+    }
+
+    /**
+     * Check whether this bundle was compiled from the current content of a json language file.
+     *
+     * @param source the json language file
+     * @return true if the length and checksum of the file match the ones recorded in the bundle
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean isCompiledFrom(File source) throws IOException {
+        try (var channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            return channel.size() == sourceLength
+                    && checksum(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())) == sourceChecksum;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deserialize the bundle to an Object, texts are created from the precompiled lines.
+     * <p>The lines are handed to the text adapter of the given gson for the duration of this call on this thread only,
+     * so the gson is used as it is and must have the adapter of {@link Text} registered, like the one of a SimpleLanguageLoader.
+     * Lines are decoded from the bundle when a text asks for them.</p>
+     *
+     * @param gson gson used to deserialize, usually the one of a SimpleLanguageLoader
+     * @param type type of the object
+     * @param <T>  type of the object
+     * @return deserialized object, or null if the json file was empty
+     * @throws JsonParseException        if the bundle doesn't match the type
+     * @throws IndexOutOfBoundsException if the bundle is corrupted
+     */
+    public <T> T load(Gson gson, Type type) {
+        var lineIndexes = new HashMap<String, Integer>();
+        var tree = readTree(tokens.duplicate(), lineIndexes);
+        if (tree == null) {
+            return null;
+        }
+        return Text.withPrecompiledLines(original -> {
+            var index = lineIndexes.get(original);
+            return index != null ? lineAt(index) : null;
+        }, () -> gson.fromJson(tree, type));
+    }
+
+    /**
+     * @return the string at an index of the table, decoded on first access
+     */
+    private String stringAt(int index) {
+        var string = strings[index];
+        if (string == null) {
+            var offset = stringOffsets.getInt(index * Integer.BYTES);
+            var length = stringData.getInt(offset);
+            // a corrupted length must not allocate more than the bundle holds
+            Objects.checkFromIndexSize(offset + Integer.BYTES, length, stringData.limit());
+            var bytes = new byte[length];
+            stringData.get(offset + Integer.BYTES, bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    /**
+     * @return the precompiled line of the string at an index of the table, decoded on first access, or null if it has none
+     */
+    private TextLine lineAt(int index) {
+        var line = lines[index];
+        if (line == null) {
+            var offset = lineOffsets.getInt(index * Integer.BYTES);
+            if (offset == NO_LINE) {
+                return null;
+            }
+            var original = stringAt(index);
+            var flags = lineData.get(offset++);
+            var expanded = original;
+            if ((flags & EXPANDED_DIFFERS) != 0) {
+                expanded = stringAt(lineData.getInt(offset));
+                offset += Integer.BYTES;
+            }
+            var colored = original;
+            if ((flags & COLORED_DIFFERS) != 0) {
+                colored = stringAt(lineData.getInt(offset));
+                offset += Integer.BYTES;
+            }
+            var slotCount = lineData.getInt(offset);
+            offset += Integer.BYTES;
+            Objects.checkFromIndexSize(offset, Math.multiplyExact(slotCount, Integer.BYTES), lineData.limit());
+            var slotBounds = new int[slotCount];
+            for (int i = 0; i < slotBounds.length; i++, offset += Integer.BYTES) {
+                slotBounds[i] = lineData.getInt(offset);
+            }
+            line = TextLine.intern(new TextLine(original, expanded, colored, TextTemplate.fromSlots(colored, slotBounds)));
+            lines[index] = line;
+        }
+        return line;
+    }
+
+    /**
+     * Build the json tree of the token stream.
+     *
+     * @param tokens      the token stream
+     * @param lineIndexes filled with the table index of every string value
+     * @return the root element, or null if the json file was empty
+     */
+    private JsonElement readTree(ByteBuffer tokens, Map<String, Integer> lineIndexes) {
+        if (!tokens.hasRemaining()) {
+            return null;
+        }
+        var parents = new ArrayDeque<JsonElement>();
+        String name = null;
+        JsonElement root = null;
+        while (tokens.hasRemaining()) {
+            var kind = tokens.get();
+            if (kind == NAME) {
+                name = stringAt(tokens.getInt());
+                continue;
+            }
+            if (kind == END_OBJECT || kind == END_ARRAY) {
+                root = parents.pop();
+                continue;
+            }
+            JsonElement element = switch (kind) {
+                case BEGIN_OBJECT -> new JsonObject();
+                case BEGIN_ARRAY -> new JsonArray();
+                case STRING -> {
+                    var index = tokens.getInt();
+                    var value = stringAt(index);
+                    lineIndexes.putIfAbsent(value, index);
+                    yield new JsonPrimitive(value);
+                }
+                // parsed back by gson, which keeps the number lazily parsed like when reading the json
+                case NUMBER -> JsonParser.parseString(stringAt(tokens.getInt()));
+                case TRUE -> new JsonPrimitive(true);
+                case FALSE -> new JsonPrimitive(false);
+                case NULL -> JsonNull.INSTANCE;
+                default -> throw new JsonParseException("Unknown token " + kind + " in language bundle");
+            };
+            var parent = parents.peek();
+            if (parent instanceof JsonObject object) {
+                object.add(name, element);
+            } else if (parent instanceof JsonArray array) {
+                array.add(element);
+            } else {
+                root = element;
+            }
+            if (kind == BEGIN_OBJECT || kind == BEGIN_ARRAY) {
+                parents.push(element);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Write the token stream of a json element, interning names and strings to the table.
+     *
+     * @param values filled with the table index of every string value
+     */
+    private static void writeTokens(JsonElement element, DataOutputStream output, Map<String, Integer> table, Set<Integer> values) throws IOException {
+        if (element instanceof JsonObject object) {
+            output.writeByte(BEGIN_OBJECT);
+            for (var entry : object.entrySet()) {
+                output.writeByte(NAME);
+                output.writeInt(intern(table, entry.getKey()));
+                writeTokens(entry.getValue(), output, table, values);
+            }
+            output.writeByte(END_OBJECT);
+        } else if (element instanceof JsonArray array) {
+            output.writeByte(BEGIN_ARRAY);
+            for (var item : array) {
+                writeTokens(item, output, table, values);
+            }
+            output.writeByte(END_ARRAY);
+        } else if (element instanceof JsonPrimitive primitive) {
+            if (primitive.isBoolean()) {
+                output.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isNumber()) {
+                // the number as written in the json
+                output.writeByte(NUMBER);
+                output.writeInt(intern(table, primitive.getAsString()));
+            } else {
+                var index = intern(table, primitive.getAsString());
+                values.add(index);
+                output.writeByte(STRING);
+                output.writeInt(index);
+            }
+        } else {
+            output.writeByte(NULL);
+        }
+    }
+
+    private static int intern(Map<String, Integer> table, String string) {
+        var index = table.get(string);
+        if (index == null) {
+            index = table.size();
+            table.put(string, index);
+        }
+        return index;
+    }
+
+    private static int checksum(ByteBuffer bytes) {
+        var crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
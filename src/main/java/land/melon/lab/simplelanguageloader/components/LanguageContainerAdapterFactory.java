@@ -0,0 +1,300 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import com.google.gson.*;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.annotations.Since;
+import com.google.gson.annotations.Until;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.TypeVariable;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A gson adapter factory for language containers, which binds every container class once with method handles
+ * instead of going through gson's reflective adapter on each field of each load, and reports missing and extra keys.
+ * <p>It applies to every concrete class with a no-argument constructor that declares at least one {@link Text} field,
+ * other classes are left to gson. Fields are selected and named like gson does by default, through the public API of
+ * gson only: static, transient and synthetic fields are skipped, and names come from {@link SerializedName} or the field
+ * naming strategy of the gson instance. Settings gson doesn't expose are given to the factory instead: a field naming
+ * strategy overriding the one of the gson instance, and whether only {@link Expose} fields are used, as with
+ * {@link GsonBuilder#excludeFieldsWithoutExposeAnnotation()}. Classes with {@link Since} or {@link Until} fields are left
+ * to gson, since its version is unknown; custom exclusion strategies of the gson instance are not seen, so don't combine
+ * them with this factory. Fields missing in the json keep the value set by the constructor, just like with gson.</p>
+ * <p>Register it to the GsonBuilder of the loader:</p>
+ * <pre>
+ *     var loader = new SimpleLanguageLoader(new GsonBuilder().registerTypeAdapterFactory(
+ *          new LanguageContainerAdapterFactory(report -&gt; logger.warning(report.toString()))), true);
+ * </pre>
+ */
+public final class LanguageContainerAdapterFactory implements TypeAdapterFactory {
+    private final Consumer<KeyReport> reporter;
+    private final FieldNamingStrategy namingStrategy;
+    private final boolean exposedOnly;
+
+    /**
+     * Create a factory which doesn't report missing or extra keys.
+     */
+    public LanguageContainerAdapterFactory() {
+        this(null);
+    }
+
+    /**
+     * Create a factory which reports missing and extra keys.
+     *
+     * @param reporter called after a container is read with keys missing or unknown in the json, may be null
+     */
+    public LanguageContainerAdapterFactory(Consumer<KeyReport> reporter) {
+        this(reporter, null, false);
+    }
+
+    /**
+     * Create a factory which reports missing and extra keys, with the field settings of the gson instance.
+     *
+     * @param reporter       called after a container is read with keys missing or unknown in the json, may be null
+     * @param namingStrategy names fields without {@link SerializedName}, or null for the one of the gson instance
+     * @param exposedOnly    only use fields annotated with {@link Expose}, set it if the gson excludes fields without it
+     */
+    public LanguageContainerAdapterFactory(Consumer<KeyReport> reporter, FieldNamingStrategy namingStrategy, boolean exposedOnly) {
+        this.reporter = reporter;
+        this.namingStrategy = namingStrategy;
+        this.exposedOnly = exposedOnly;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        var type = typeToken.getRawType();
+        if (!isContainer(type)) {
+            return null;
+        }
+        try {
+            var lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            var constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            var bindings = new ArrayList<FieldBinding>();
+            var bindingsByName = new HashMap<String, FieldBinding>();
+            for (var current = type; current != Object.class; current = current.getSuperclass()) {
+                for (var field : current.getDeclaredFields()) {
+                    var serialized = !isExcluded(field, true);
+                    var deserialized = !isExcluded(field, false);
+                    if (!serialized && !deserialized) {
+                        continue;
+                    }
+                    if (field.getGenericType() instanceof TypeVariable<?> || Modifier.isFinal(field.getModifiers())
+                            || field.isAnnotationPresent(Since.class) || field.isAnnotationPresent(Until.class)) {
+                        // generic, final and versioned fields are left to gson
+                        return null;
+                    }
+                    var binding = bind(gson, lookup, field, bindings.size(), serialized, deserialized);
+                    for (var name : binding.names) {
+                        if (bindingsByName.putIfAbsent(name, binding) != null) {
+                            // gson reports duplicate names itself
+                            return null;
+                        }
+                    }
+                    bindings.add(binding);
+                }
+            }
+            @SuppressWarnings("unchecked")
+            var adapter = (TypeAdapter<T>) new ContainerAdapter(type, constructor, bindings.toArray(FieldBinding[]::new), bindingsByName, reporter);
+            return adapter;
+        } catch (ReflectiveOperationException | SecurityException | IllegalArgumentException e) {
+            // inaccessible containers are left to gson
+            return null;
+        }
+    }
+
+    private static boolean isContainer(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isEnum() || type.isRecord() || type.isPrimitive()
+                || Modifier.isAbstract(type.getModifiers()) || type == Text.class
+                || (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))
+                || type.getName().startsWith("java.")) {
+            return false;
+        }
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (var field : current.getDeclaredFields()) {
+                if (field.getType() == Text.class && !Modifier.isStatic(field.getModifiers())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if gson would skip the field in the given direction, with the settings of this factory
+     */
+    private boolean isExcluded(Field field, boolean serialize) {
+        var modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic() || isAnonymousOrLocal(field.getType())) {
+            return true;
+        }
+        if (exposedOnly) {
+            var expose = field.getAnnotation(Expose.class);
+            return expose == null || !(serialize ? expose.serialize() : expose.deserialize());
+        }
+        return false;
+    }
+
+    private static boolean isAnonymousOrLocal(Class<?> type) {
+        return !Enum.class.isAssignableFrom(type) && (type.isAnonymousClass() || type.isLocalClass());
+    }
+
+    private FieldBinding bind(Gson gson, MethodHandles.Lookup lookup, Field field, int index, boolean serialized, boolean deserialized)
+            throws IllegalAccessException {
+        var names = new ArrayList<String>();
+        var serializedName = field.getAnnotation(SerializedName.class);
+        if (serializedName != null) {
+            names.add(serializedName.value());
+            names.addAll(Arrays.asList(serializedName.alternate()));
+        } else {
+            names.add((namingStrategy != null ? namingStrategy : gson.fieldNamingStrategy()).translateName(field));
+        }
+        var objectSignature = MethodType.methodType(Object.class, Object.class);
+        var getter = lookup.unreflectGetter(field).asType(objectSignature);
+        var setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        @SuppressWarnings("unchecked")
+        var adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(field.getGenericType()));
+        return new FieldBinding(index, names, getter, setter, adapter, field.getType().isPrimitive(), serialized, deserialized);
+    }
+
+    /**
+     * Keys of a container missing in the json, or present in the json but unknown to the container.
+     *
+     * @param container   the container class
+     * @param missingKeys keys of the container missing in the json, which kept their default values
+     * @param extraKeys   keys in the json unknown to the container, which were skipped
+     */
+    public record KeyReport(Class<?> container, List<String> missingKeys, List<String> extraKeys) {
+    }
+
+    private record FieldBinding(int index, List<String> names, MethodHandle getter, MethodHandle setter,
+                                TypeAdapter<Object> adapter, boolean primitive, boolean serialized, boolean deserialized) {
+    }
+
+    private static final class ContainerAdapter extends TypeAdapter<Object> {
+        private final Class<?> type;
+        private final MethodHandle constructor;
+        private final FieldBinding[] bindings;
+        private final Map<String, FieldBinding> bindingsByName;
+        private final Consumer<KeyReport> reporter;
+
+        private ContainerAdapter(Class<?> type, MethodHandle constructor, FieldBinding[] bindings,
+                                 Map<String, FieldBinding> bindingsByName, Consumer<KeyReport> reporter) {
+            this.type = type;
+            this.constructor = constructor;
+            this.bindings = bindings;
+            this.bindingsByName = bindingsByName;
+            this.reporter = reporter;
+        }
+
+        @Override
+        public void write(JsonWriter out, Object value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            for (var binding : bindings) {
+                if (binding.serialized) {
+                    out.name(binding.names.get(0));
+                    binding.adapter.write(out, invokeGetter(binding, value));
+                }
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Object read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            var instance = construct();
+            var seen = new BitSet(bindings.length);
+            List<String> extraKeys = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                var name = in.nextName();
+                var binding = bindingsByName.get(name);
+                if (binding == null || !binding.deserialized) {
+                    in.skipValue();
+                    if (reporter != null && binding == null) {
+                        if (extraKeys == null) {
+                            extraKeys = new ArrayList<>();
+                        }
+                        extraKeys.add(name);
+                    }
+                    continue;
+                }
+                var fieldValue = binding.adapter.read(in);
+                if (fieldValue != null || !binding.primitive) {
+                    invokeSetter(binding, instance, fieldValue);
+                }
+                seen.set(binding.index);
+            }
+            in.endObject();
+            if (reporter != null) {
+                report(seen, extraKeys);
+            }
+            return instance;
+        }
+
+        private void report(BitSet seen, List<String> extraKeys) {
+            List<String> missingKeys = null;
+            for (var binding : bindings) {
+                if (binding.deserialized && !seen.get(binding.index)) {
+                    if (missingKeys == null) {
+                        missingKeys = new ArrayList<>();
+                    }
+                    missingKeys.add(binding.names.get(0));
+                }
+            }
+            if (missingKeys != null || extraKeys != null) {
+                reporter.accept(new KeyReport(type,
+                        missingKeys == null ? List.of() : List.copyOf(missingKeys),
+                        extraKeys == null ? List.of() : List.copyOf(extraKeys)));
+            }
+        }
+
+        private Object construct() {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonParseException("Failed to construct " + type.getName(), e);
+            }
+        }
+
+        private static Object invokeGetter(FieldBinding binding, Object instance) {
+            try {
+                return (Object) binding.getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonParseException(e);
+            }
+        }
+
+        private static void invokeSetter(FieldBinding binding, Object instance, Object value) {
+            try {
+                binding.setter.invokeExact(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonParseException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package land.melon.lab.simplelanguageloader.components;
+
+/**
+ * Measurements of a single line of a {@link Text}, computed once per line and cached, see {@link Text#metrics()}.
+ * <p>Placeholders are not included in the measurements since their values are only known when rendering,
+ * add the measurements of the values from {@link land.melon.lab.simplelanguageloader.utils.TextUtils} to get the rendered size.</p>
+ *
+ * @param visibleLength number of characters shown in game, without color codes and placeholders
+ * @param pixelWidth    width in pixels with the default Minecraft font, without placeholders
+ * @param placeholders  number of placeholders in the line
+ */
+public record LineMetrics(int visibleLength, int pixelWidth, int placeholders) {
+}
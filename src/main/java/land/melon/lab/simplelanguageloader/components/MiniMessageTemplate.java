@@ -0,0 +1,226 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Adventure {@link Component} form of a line written in <a href="https://docs.advntr.dev/minimessage/format.html">MiniMessage</a> format.
+ * <p>The original line is parsed by MiniMessage once, with every placeholder replaced by a marker tag. The parsed tree
+ * is flattened into fragments carrying the style they inherit, which gives a {@link ComponentTemplate},
+ * so a render only fills the slots just like it does for a legacy line.</p>
+ * <p>Placeholders which MiniMessage doesn't parse as content, like in the argument of a click or color tag, can't be
+ * kept as slots. Such a line is rendered by substituting the values into its source and parsing it on every render,
+ * with the tags of the values escaped so a value never adds tags of its own, and {@link Component} values serialized
+ * back to MiniMessage.</p>
+ * <p>MiniMessage is only needed at runtime once a text is produced as MiniMessage.</p>
+ */
+final class MiniMessageTemplate {
+    private static final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private static final String slotTag = "sll_slot";
+    /**
+     * noncharacters wrapping the slot index in the parsed tree, they never appear in a valid text
+     */
+    private static final char markerStart = '\uFDD0';
+    private static final char markerEnd = '\uFDD1';
+    private static final TagResolver slotResolver = TagResolver.resolver(slotTag, (arguments, context) ->
+            Tag.selfClosingInserting(Component.text(markerStart + arguments.popOr("slot index expected").value() + markerEnd)));
+
+    /**
+     * the flattened template, null if the line is parsed on every render
+     */
+    private final ComponentTemplate template;
+    /**
+     * the template of the source, substituted and parsed on every render if there is no flattened template
+     */
+    private final TextTemplate source;
+
+    private MiniMessageTemplate(ComponentTemplate template, TextTemplate source) {
+        this.template = template;
+        this.source = source;
+    }
+
+    /**
+     * Parse a line written in MiniMessage format into a template.
+     *
+     * @param line the original line
+     * @return the compiled template
+     */
+    static MiniMessageTemplate compile(String line) {
+        var slotBounds = TextTemplate.slotBounds(line);
+        var slotCount = slotBounds.length / 2;
+        var source = TextTemplate.fromSlots(line, slotBounds);
+        if (hasSlotInTag(line, slotBounds)) {
+            return new MiniMessageTemplate(null, source);
+        }
+        var marked = new StringBuilder(line.length() + slotCount * 16);
+        var literalStart = 0;
+        for (int i = 0; i < slotCount; i++) {
+            var open = slotBounds[i * 2];
+            var close = slotBounds[i * 2 + 1];
+            marked.append(line, literalStart, open).append('<').append(slotTag).append(':').append(i).append('>');
+            literalStart = close + 1;
+        }
+        marked.append(line, literalStart, line.length());
+
+        var flattening = new Flattening();
+        flattening.flatten(miniMessage.deserialize(marked.toString(), slotResolver), Style.empty());
+        if (!flattening.inOrder || flattening.slotStyles.size() != slotCount) {
+            return new MiniMessageTemplate(null, source);
+        }
+        flattening.literals.add(ComponentTemplate.join(flattening.fragments));
+        return new MiniMessageTemplate(ComponentTemplate.of(flattening.literals.toArray(Component[]::new),
+                source, flattening.slotStyles.toArray(Style[]::new)), null);
+    }
+
+    /**
+     * Check whether a placeholder is written inside a tag, between an unescaped <code>&lt;</code> and the next
+     * <code>&gt;</code>, like <code>&lt;color:{color}&gt;</code>. MiniMessage may still parse the slot tag there as
+     * content, splitting the surrounding tag into text, so such a line can't be flattened.
+     *
+     * @param line       the original line
+     * @param slotBounds the slots of the line, see {@link TextTemplate#slotBounds(String)}
+     * @return true if a slot is inside a tag
+     */
+    private static boolean hasSlotInTag(String line, int[] slotBounds) {
+        var inTag = false;
+        var slot = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (slot < slotBounds.length && i == slotBounds[slot]) {
+                if (inTag) {
+                    return true;
+                }
+                i = slotBounds[slot + 1];
+                slot += 2;
+                continue;
+            }
+            var c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() && (slot >= slotBounds.length || i + 1 != slotBounds[slot])) {
+                // an escaped character is text, it neither opens nor closes a tag
+                i++;
+            } else if (c == '<') {
+                inTag = true;
+            } else if (c == '>') {
+                inTag = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     *
+     * @param pairs the pairs of placeholder and its value
+     * @return the rendered line
+     */
+    Component render(Pair<String, Object>[] pairs) {
+        return template != null ? template.render(pairs) : miniMessage.deserialize(substitute(pairs));
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     *
+     * @param placeholders the placeholder values
+     * @return the rendered line
+     */
+    Component render(Placeholders placeholders) {
+        return template != null ? template.render(placeholders) : miniMessage.deserialize(substitute(placeholders));
+    }
+
+    /**
+     * @return the source with the values substituted, escaped so they are parsed as text
+     */
+    private String substitute(Pair<String, Object>[] pairs) {
+        var builder = new StringBuilder(source.estimatedLength()).append(source.literal(0));
+        var placeholders = source.placeholders();
+        var value = new StringBuilder();
+        for (int i = 0; i < placeholders.length; i++) {
+            var pairIndex = TextTemplate.indexOf(placeholders[i], pairs);
+            if (pairIndex < 0) {
+                builder.append('{').append(source.unresolved(i)).append('}');
+            } else if (pairs[pairIndex].value() instanceof Component component) {
+                builder.append(miniMessage.serialize(component));
+            } else {
+                value.setLength(0);
+                TextTemplate.appendValue(value, pairs[pairIndex].value(), source.formats()[i]);
+                builder.append(miniMessage.escapeTags(value.toString()));
+            }
+            builder.append(source.literal(i + 1));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the source with the values substituted, escaped so they are parsed as text
+     */
+    private String substitute(Placeholders placeholders) {
+        var builder = new StringBuilder(source.estimatedLength()).append(source.literal(0));
+        var keys = source.placeholders();
+        var value = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            var valueIndex = placeholders.indexOf(keys[i]);
+            if (valueIndex < 0) {
+                builder.append('{').append(source.unresolved(i)).append('}');
+            } else if (placeholders.componentAt(valueIndex) != null) {
+                builder.append(miniMessage.serialize(placeholders.componentAt(valueIndex)));
+            } else {
+                value.setLength(0);
+                placeholders.appendValue(value, valueIndex, source.formats()[i]);
+                builder.append(miniMessage.escapeTags(value.toString()));
+            }
+            builder.append(source.literal(i + 1));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Flattens a parsed tree into literal fragments split at the slot markers.
+     */
+    private static final class Flattening {
+        private final List<Component> literals = new ArrayList<>();
+        private final List<Style> slotStyles = new ArrayList<>();
+        private final List<Component> fragments = new ArrayList<>();
+        private boolean inOrder = true;
+
+        private void flatten(Component component, Style inherited) {
+            var style = inherited.merge(component.style());
+            if (component instanceof TextComponent text) {
+                split(text.content(), style);
+            } else {
+                // translatable, keybind and the like are kept whole, their children are flattened like any other
+                fragments.add(component.children(List.of()).style(style));
+            }
+            for (var child : component.children()) {
+                flatten(child, style);
+            }
+        }
+
+        private void split(String content, Style style) {
+            var start = 0;
+            for (int open = content.indexOf(markerStart); open >= 0; open = content.indexOf(markerStart, start)) {
+                if (start < open) {
+                    fragments.add(Component.text(content.substring(start, open), style));
+                }
+                var close = content.indexOf(markerEnd, open);
+                if (close < 0 || !content.substring(open + 1, close).equals(Integer.toString(slotStyles.size()))) {
+                    inOrder = false;
+                    return;
+                }
+                literals.add(ComponentTemplate.join(fragments));
+                fragments.clear();
+                slotStyles.add(style);
+                start = close + 1;
+            }
+            if (start < content.length()) {
+                fragments.add(Component.text(content.substring(start), style));
+            }
+        }
+    }
+}
@@ -0,0 +1,746 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The format of a placeholder like <code>{amount,number,#,##0.0}</code>, parsed once with its {@link TextTemplate}.
+ * <p>Supported formats:</p>
+ * <ul>
+ *     <li><code>{key,number}</code>, <code>{key,number,integer}</code>, <code>{key,number,percent}</code> or
+ *     <code>{key,number,&lt;DecimalFormat pattern&gt;}</code></li>
+ *     <li><code>{key,plural,=0{none}one{# coin}other{# coins}}</code>, <code>#</code> is replaced by the number</li>
+ *     <li><code>{key,duration}</code> like <code>1:02:03</code> or <code>{key,duration,short}</code> like
+ *     <code>1h 2m 3s</code>, of a {@link Duration} or milliseconds</li>
+ *     <li><code>{key,date}</code>, <code>{key,time}</code> and <code>{key,datetime}</code> with an optional style
+ *     <code>short</code>, <code>medium</code>, <code>long</code>, <code>full</code> or a DateTimeFormatter pattern,
+ *     of a temporal, a {@link Date}, a {@link Calendar} or epoch milliseconds in the system time zone</li>
+ * </ul>
+ * <p>A placeholder with an unknown type or a malformed style is not a format, it's a plain placeholder named by its
+ * whole content, so a typo in a language file never breaks rendering.</p>
+ * <p>Formatters are built once per locale and style and shared, formats are immutable and thread safe.
+ * Numbers of plain patterns are formatted straight into the output with the symbols of the locale,
+ * integers without allocating, other patterns use a DecimalFormat per thread.</p>
+ */
+abstract class PlaceholderFormat {
+    /**
+     * the text between the braces of the placeholder, kept to render placeholders without a value as they were
+     */
+    private final String source;
+
+    private PlaceholderFormat(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Parse the content of a placeholder.
+     *
+     * @param content the text between the braces
+     * @param comma   the index of the first comma in the content
+     * @return the format, or null if the content doesn't name a supported format or its style is malformed
+     */
+    static PlaceholderFormat parse(String content, int comma) {
+        var styleComma = content.indexOf(',', comma + 1);
+        var type = (styleComma < 0 ? content.substring(comma + 1) : content.substring(comma + 1, styleComma)).trim();
+        var style = styleComma < 0 ? null : content.substring(styleComma + 1).trim();
+        return switch (type) {
+            case "number" -> NumberStyle.isValid(style) ? new NumberStyle(content, style) : null;
+            case "plural" -> style == null ? null : PluralStyle.parse(content, style);
+            case "duration" -> new DurationStyle(content, "short".equals(style));
+            case "date", "time", "datetime" -> DateStyle.isValid(style) ? new DateStyle(content, type, style) : null;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the text between the braces of the placeholder
+     */
+    final String source() {
+        return source;
+    }
+
+    /**
+     * Format a value into the builder.
+     *
+     * @param builder the output buffer
+     * @param value   the value
+     * @param locale  the locale to format for
+     */
+    abstract void format(StringBuilder builder, Object value, Locale locale);
+
+    /**
+     * Format a long value into the builder, without boxing where the format allows.
+     */
+    void format(StringBuilder builder, long value, Locale locale) {
+        format(builder, (Object) value, locale);
+    }
+
+    /**
+     * Format a double value into the builder, without boxing where the format allows.
+     */
+    void format(StringBuilder builder, double value, Locale locale) {
+        format(builder, (Object) value, locale);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static final class NumberStyle extends PlaceholderFormat {
+        private static final Map<NumberKey, NumberFormatter> formatters = new ConcurrentHashMap<>();
+
+        private final String style;
+
+        private NumberStyle(String source, String style) {
+            super(source);
+            this.style = style;
+        }
+
+        /**
+         * @return true if the style is a named style or a valid DecimalFormat pattern
+         */
+        static boolean isValid(String style) {
+            if (style == null || style.equals("integer") || style.equals("percent")) {
+                return true;
+            }
+            try {
+                new DecimalFormat(style);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        void format(StringBuilder builder, Object value, Locale locale) {
+            formatterOf(style, locale).format(builder, value);
+        }
+
+        @Override
+        void format(StringBuilder builder, long value, Locale locale) {
+            formatterOf(style, locale).format(builder, value);
+        }
+
+        @Override
+        void format(StringBuilder builder, double value, Locale locale) {
+            formatterOf(style, locale).format(builder, value);
+        }
+
+        /**
+         * @param style null for the default number format of the locale
+         */
+        static NumberFormatter formatterOf(String style, Locale locale) {
+            var key = new NumberKey(style, locale);
+            var formatter = formatters.get(key);
+            if (formatter == null) {
+                formatter = formatters.computeIfAbsent(key, NumberFormatter::new);
+            }
+            return formatter;
+        }
+    }
+
+    private record NumberKey(String style, Locale locale) {
+    }
+
+    /**
+     * Formats numbers of one style and locale, with the fast path if the DecimalFormat of the style is plain:
+     * no prefix, suffix, multiplier or exponent, and half even rounding.
+     */
+    private static final class NumberFormatter {
+        private static final long[] powersOfTen = new long[19];
+        /**
+         * DecimalFormat keeps at most this many integer digits of a double
+         */
+        private static final int MAX_INTEGER_DIGITS = 309;
+
+        static {
+            powersOfTen[0] = 1;
+            for (int i = 1; i < powersOfTen.length; i++) {
+                powersOfTen[i] = powersOfTen[i - 1] * 10;
+            }
+        }
+
+        private final boolean plain;
+        private final ThreadLocal<DecimalFormat> decimalFormat;
+        private final char zeroDigit;
+        private final char groupingSeparator;
+        private final char decimalSeparator;
+        private final char minusSign;
+        private final String infinity;
+        private final String nan;
+        private final int groupingSize;
+        private final int minimumIntegerDigits;
+        private final int minimumFractionDigits;
+        private final int maximumFractionDigits;
+
+        private NumberFormatter(NumberKey key) {
+            var prototype = create(key);
+            var symbols = prototype.getDecimalFormatSymbols();
+            decimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) prototype.clone());
+            zeroDigit = symbols.getZeroDigit();
+            groupingSeparator = symbols.getGroupingSeparator();
+            decimalSeparator = symbols.getDecimalSeparator();
+            minusSign = symbols.getMinusSign();
+            infinity = symbols.getInfinity();
+            nan = symbols.getNaN();
+            groupingSize = prototype.isGroupingUsed() ? prototype.getGroupingSize() : 0;
+            minimumIntegerDigits = prototype.getMinimumIntegerDigits();
+            minimumFractionDigits = prototype.getMinimumFractionDigits();
+            maximumFractionDigits = prototype.getMaximumFractionDigits();
+            plain = prototype.getPositivePrefix().isEmpty() && prototype.getPositiveSuffix().isEmpty()
+                    && prototype.getNegativePrefix().equals(String.valueOf(minusSign)) && prototype.getNegativeSuffix().isEmpty()
+                    && prototype.getMultiplier() == 1 && prototype.getRoundingMode() == RoundingMode.HALF_EVEN
+                    && !prototype.isDecimalSeparatorAlwaysShown() && prototype.toPattern().indexOf('E') < 0
+                    && prototype.getMaximumIntegerDigits() >= MAX_INTEGER_DIGITS && minimumIntegerDigits < powersOfTen.length;
+        }
+
+        private static DecimalFormat create(NumberKey key) {
+            if (key.style == null) {
+                return decimal(NumberFormat.getNumberInstance(key.locale), key);
+            }
+            return switch (key.style) {
+                case "integer" -> decimal(NumberFormat.getIntegerInstance(key.locale), key);
+                case "percent" -> decimal(NumberFormat.getPercentInstance(key.locale), key);
+                default -> new DecimalFormat(key.style, DecimalFormatSymbols.getInstance(key.locale));
+            };
+        }
+
+        private static DecimalFormat decimal(NumberFormat format, NumberKey key) {
+            if (format instanceof DecimalFormat decimalFormat) {
+                return decimalFormat;
+            }
+            // locale providers may return other formats, fall back to a plain pattern with the symbols of the locale
+            return new DecimalFormat("integer".equals(key.style) ? "#,##0" : "#,##0.###", DecimalFormatSymbols.getInstance(key.locale));
+        }
+
+        void format(StringBuilder builder, Object value) {
+            if (isIntegral(value)) {
+                format(builder, ((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                format(builder, ((Number) value).doubleValue());
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                if (plain) {
+                    var decimal = value instanceof BigDecimal bigDecimal ? bigDecimal : new BigDecimal((BigInteger) value);
+                    appendDecimal(builder, decimal, decimal.signum() < 0, RoundingMode.HALF_EVEN);
+                } else {
+                    builder.append(decimalFormat.get().format(value));
+                }
+            } else if (value instanceof Number number) {
+                format(builder, number.doubleValue());
+            } else {
+                builder.append(value);
+            }
+        }
+
+        void format(StringBuilder builder, long value) {
+            if (!plain || value == Long.MIN_VALUE) {
+                builder.append(decimalFormat.get().format(value));
+                return;
+            }
+            if (value < 0) {
+                builder.append(minusSign);
+                value = -value;
+            }
+            appendInteger(builder, value);
+            appendFractionZeros(builder);
+        }
+
+        void format(StringBuilder builder, double value) {
+            if (!plain) {
+                builder.append(decimalFormat.get().format(value));
+                return;
+            }
+            // like DecimalFormat, negative zero and negative values rounded to zero keep their sign
+            var negative = value < 0 || (value == 0 && 1 / value < 0);
+            if (Double.isNaN(value)) {
+                builder.append(nan);
+            } else if (Double.isInfinite(value)) {
+                if (negative) {
+                    builder.append(minusSign);
+                }
+                builder.append(infinity);
+            } else if (value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+                if (negative) {
+                    builder.append(minusSign);
+                }
+                appendInteger(builder, (long) Math.abs(value));
+                appendFractionZeros(builder);
+            } else {
+                appendDecimal(builder, BigDecimal.valueOf(value), negative, roundingOf(value));
+            }
+        }
+
+        /**
+         * Like DecimalFormat, a double is formatted from its shortest decimal representation, and a tie in that
+         * representation is broken by the exact binary value, which may be slightly above or below it.
+         *
+         * @return the rounding of the shortest representation that matches rounding the double half even
+         */
+        private RoundingMode roundingOf(double value) {
+            var shortest = BigDecimal.valueOf(Math.abs(value)).stripTrailingZeros();
+            if (shortest.scale() != maximumFractionDigits + 1 || shortest.unscaledValue().mod(BigInteger.TEN).intValue() != 5) {
+                return RoundingMode.HALF_EVEN;
+            }
+            var comparison = new BigDecimal(Math.abs(value)).compareTo(shortest);
+            return comparison > 0 ? RoundingMode.UP : comparison < 0 ? RoundingMode.DOWN : RoundingMode.HALF_EVEN;
+        }
+
+        private void appendDecimal(StringBuilder builder, BigDecimal value, boolean negative, RoundingMode rounding) {
+            var rounded = value.setScale(maximumFractionDigits, rounding).stripTrailingZeros();
+            rounded = rounded.setScale(Math.max(rounded.scale(), minimumFractionDigits), RoundingMode.UNNECESSARY);
+            if (negative) {
+                builder.append(minusSign);
+            }
+            var digits = rounded.unscaledValue().abs().toString();
+            var scale = rounded.scale();
+            var integerDigits = digits.length() - scale;
+            var width = Math.max(Math.max(integerDigits, 0), minimumIntegerDigits);
+            for (int position = width - 1; position >= 0; position--) {
+                var index = integerDigits - 1 - position;
+                appendDigit(builder, index >= 0 ? digits.charAt(index) - '0' : 0);
+                appendGroupingSeparator(builder, position);
+            }
+            if (scale > 0) {
+                builder.append(decimalSeparator);
+                // a value below one has zeros between the separator and its first digit
+                for (int i = integerDigits; i < 0; i++) {
+                    builder.append(zeroDigit);
+                }
+                for (int i = Math.max(integerDigits, 0); i < digits.length(); i++) {
+                    appendDigit(builder, digits.charAt(i) - '0');
+                }
+            }
+        }
+
+        /**
+         * Append a non-negative integer with the minimum integer digits and grouping separators.
+         */
+        private void appendInteger(StringBuilder builder, long value) {
+            var digitCount = 1;
+            while (digitCount < powersOfTen.length && value >= powersOfTen[digitCount]) {
+                digitCount++;
+            }
+            var width = Math.max(digitCount, minimumIntegerDigits);
+            for (int position = width - 1; position >= 0; position--) {
+                appendDigit(builder, position < powersOfTen.length ? (int) (value / powersOfTen[position] % 10) : 0);
+                appendGroupingSeparator(builder, position);
+            }
+        }
+
+        private void appendFractionZeros(StringBuilder builder) {
+            if (minimumFractionDigits > 0) {
+                builder.append(decimalSeparator);
+                for (int i = 0; i < minimumFractionDigits; i++) {
+                    builder.append(zeroDigit);
+                }
+            }
+        }
+
+        private void appendDigit(StringBuilder builder, int digit) {
+            builder.append((char) (zeroDigit + digit));
+        }
+
+        /**
+         * Append the grouping separator after the digit at a position, counted from the last integer digit.
+         */
+        private void appendGroupingSeparator(StringBuilder builder, int position) {
+            if (groupingSize > 0 && position > 0 && position % groupingSize == 0) {
+                builder.append(groupingSeparator);
+            }
+        }
+    }
+
+    /**
+     * Chooses a branch by exact value first, then by the plural category of the locale, then <code>other</code>.
+     */
+    private static final class PluralStyle extends PlaceholderFormat {
+        private static final String[] NO_BRANCH = {""};
+
+        private final long[] exactValues;
+        private final String[][] exactBranches;
+        /**
+         * branches by {@link PluralCategory} ordinal, split at <code>#</code>, null if absent
+         */
+        private final String[][] categoryBranches;
+
+        private PluralStyle(String source, long[] exactValues, String[][] exactBranches, String[][] categoryBranches) {
+            super(source);
+            this.exactValues = exactValues;
+            this.exactBranches = exactBranches;
+            this.categoryBranches = categoryBranches;
+        }
+
+        /**
+         * Parse branches like <code>=0{none}one{# coin}other{# coins}</code>.
+         *
+         * @return the format, or null if the branches are malformed
+         */
+        static PluralStyle parse(String source, String style) {
+            var exactValues = new ArrayList<Long>();
+            var exactBranches = new ArrayList<String[]>();
+            var categoryBranches = new String[PluralCategory.values().length][];
+            var index = 0;
+            while (index < style.length()) {
+                if (Character.isWhitespace(style.charAt(index))) {
+                    index++;
+                    continue;
+                }
+                var open = style.indexOf('{', index);
+                if (open < 0) {
+                    return null;
+                }
+                var close = matchingBrace(style, open);
+                if (close < 0) {
+                    return null;
+                }
+                var selector = style.substring(index, open).trim();
+                var branch = split(style.substring(open + 1, close));
+                if (selector.startsWith("=")) {
+                    try {
+                        exactValues.add(Long.parseLong(selector.substring(1).trim()));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    exactBranches.add(branch);
+                } else {
+                    var category = PluralCategory.of(selector);
+                    if (category == null) {
+                        return null;
+                    }
+                    categoryBranches[category.ordinal()] = branch;
+                }
+                index = close + 1;
+            }
+            return new PluralStyle(source, exactValues.stream().mapToLong(Long::longValue).toArray(),
+                    exactBranches.toArray(String[][]::new), categoryBranches);
+        }
+
+        private static int matchingBrace(String text, int open) {
+            var depth = 0;
+            for (int i = open; i < text.length(); i++) {
+                var c = text.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String[] split(String branch) {
+            if (branch.indexOf('#') < 0) {
+                return new String[]{branch};
+            }
+            return branch.split("#", -1);
+        }
+
+        @Override
+        void format(StringBuilder builder, Object value, Locale locale) {
+            if (isIntegral(value)) {
+                format(builder, ((Number) value).longValue(), locale);
+            } else if (value instanceof Number number) {
+                format(builder, number.doubleValue(), locale);
+            } else {
+                appendBranch(builder, categoryBranches[PluralCategory.OTHER.ordinal()], value, locale);
+            }
+        }
+
+        @Override
+        void format(StringBuilder builder, long value, Locale locale) {
+            var branch = exactBranch(value);
+            if (branch == null) {
+                branch = categoryBranch(PluralCategory.select(locale, Math.abs(value), true));
+            }
+            if (branch.length == 1) {
+                builder.append(branch[0]);
+                return;
+            }
+            var formatter = NumberStyle.formatterOf(null, locale);
+            builder.append(branch[0]);
+            for (int i = 1; i < branch.length; i++) {
+                formatter.format(builder, value);
+                builder.append(branch[i]);
+            }
+        }
+
+        @Override
+        void format(StringBuilder builder, double value, Locale locale) {
+            var integral = value == Math.rint(value) && Math.abs(value) < 0x1p53;
+            if (integral) {
+                format(builder, (long) value, locale);
+                return;
+            }
+            var branch = categoryBranch(Double.isFinite(value)
+                    ? PluralCategory.select(locale, (long) Math.abs(value), false) : PluralCategory.OTHER);
+            appendBranch(builder, branch, value, locale);
+        }
+
+        private void appendBranch(StringBuilder builder, String[] branch, Object value, Locale locale) {
+            builder.append(branch[0]);
+            for (int i = 1; i < branch.length; i++) {
+                NumberStyle.formatterOf(null, locale).format(builder, value);
+                builder.append(branch[i]);
+            }
+        }
+
+        private String[] exactBranch(long value) {
+            for (int i = 0; i < exactValues.length; i++) {
+                if (exactValues[i] == value) {
+                    return exactBranches[i];
+                }
+            }
+            return null;
+        }
+
+        private String[] categoryBranch(PluralCategory category) {
+            var branch = categoryBranches[category.ordinal()];
+            if (branch == null) {
+                branch = categoryBranches[PluralCategory.OTHER.ordinal()];
+            }
+            return branch == null ? NO_BRANCH : branch;
+        }
+    }
+
+    /**
+     * Plural categories of the CLDR, selected by simplified rules of the common languages.
+     */
+    private enum PluralCategory {
+        ZERO, ONE, TWO, FEW, MANY, OTHER;
+
+        private static final List<String> withoutPlural = List.of("ja", "zh", "ko", "th", "vi", "id", "ms", "lo", "my", "km");
+        private static final List<String> oneUpToOne = List.of("fr", "pt", "hi", "bn", "fa");
+        private static final List<String> eastSlavic = List.of("ru", "uk", "be");
+        private static final List<String> westSlavic = List.of("cs", "sk");
+
+        static PluralCategory of(String selector) {
+            return switch (selector) {
+                case "zero" -> ZERO;
+                case "one" -> ONE;
+                case "two" -> TWO;
+                case "few" -> FEW;
+                case "many" -> MANY;
+                case "other" -> OTHER;
+                default -> null;
+            };
+        }
+
+        /**
+         * @param integer  the absolute integer part of the value
+         * @param integral whether the value has no fraction
+         */
+        static PluralCategory select(Locale locale, long integer, boolean integral) {
+            var language = locale.getLanguage();
+            if (withoutPlural.contains(language)) {
+                return OTHER;
+            }
+            if (oneUpToOne.contains(language)) {
+                return integer <= 1 ? ONE : OTHER;
+            }
+            if (!integral) {
+                return OTHER;
+            }
+            var lastDigit = integer % 10;
+            var lastTwoDigits = integer % 100;
+            var fewEnding = lastDigit >= 2 && lastDigit <= 4 && (lastTwoDigits < 12 || lastTwoDigits > 14);
+            if (eastSlavic.contains(language)) {
+                if (lastDigit == 1 && lastTwoDigits != 11) {
+                    return ONE;
+                }
+                return fewEnding ? FEW : MANY;
+            }
+            if (language.equals("pl")) {
+                if (integer == 1) {
+                    return ONE;
+                }
+                return fewEnding ? FEW : MANY;
+            }
+            if (westSlavic.contains(language)) {
+                if (integer == 1) {
+                    return ONE;
+                }
+                return integer >= 2 && integer <= 4 ? FEW : OTHER;
+            }
+            return integer == 1 ? ONE : OTHER;
+        }
+    }
+
+    private static final class DurationStyle extends PlaceholderFormat {
+        private final boolean compact;
+
+        private DurationStyle(String source, boolean compact) {
+            super(source);
+            this.compact = compact;
+        }
+
+        @Override
+        void format(StringBuilder builder, Object value, Locale locale) {
+            if (value instanceof Duration duration) {
+                format(builder, duration.toMillis(), locale);
+            } else if (value instanceof Number number) {
+                format(builder, number.longValue(), locale);
+            } else {
+                builder.append(value);
+            }
+        }
+
+        @Override
+        void format(StringBuilder builder, long millis, Locale locale) {
+            if (millis < 0) {
+                builder.append('-');
+                millis = millis == Long.MIN_VALUE ? Long.MAX_VALUE : -millis;
+            }
+            var seconds = millis / 1000;
+            var minutes = seconds / 60;
+            var hours = minutes / 60;
+            if (compact) {
+                var days = hours / 24;
+                var length = builder.length();
+                appendUnit(builder, days, 'd', length);
+                appendUnit(builder, hours % 24, 'h', length);
+                appendUnit(builder, minutes % 60, 'm', length);
+                appendUnit(builder, seconds % 60, 's', length);
+                if (builder.length() == length) {
+                    builder.append("0s");
+                }
+                return;
+            }
+            if (hours > 0) {
+                builder.append(hours).append(':');
+                appendTwoDigits(builder, minutes % 60);
+            } else {
+                builder.append(minutes);
+            }
+            builder.append(':');
+            appendTwoDigits(builder, seconds % 60);
+        }
+
+        @Override
+        void format(StringBuilder builder, double millis, Locale locale) {
+            format(builder, (long) millis, locale);
+        }
+
+        private static void appendUnit(StringBuilder builder, long amount, char unit, int start) {
+            if (amount > 0) {
+                if (builder.length() != start) {
+                    builder.append(' ');
+                }
+                builder.append(amount).append(unit);
+            }
+        }
+
+        private static void appendTwoDigits(StringBuilder builder, long value) {
+            builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+        }
+    }
+
+    private static final class DateStyle extends PlaceholderFormat {
+        private static final Map<DateKey, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+
+        private final String type;
+        private final String style;
+
+        private DateStyle(String source, String type, String style) {
+            super(source);
+            this.type = type;
+            this.style = style == null ? "medium" : style;
+        }
+
+        /**
+         * @return true if the style is a named style or a valid DateTimeFormatter pattern
+         */
+        static boolean isValid(String style) {
+            if (style == null || namedStyleOf(style) != null) {
+                return true;
+            }
+            try {
+                DateTimeFormatter.ofPattern(style);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private static FormatStyle namedStyleOf(String style) {
+            return switch (style) {
+                case "short" -> FormatStyle.SHORT;
+                case "medium" -> FormatStyle.MEDIUM;
+                case "long" -> FormatStyle.LONG;
+                case "full" -> FormatStyle.FULL;
+                default -> null;
+            };
+        }
+
+        @Override
+        void format(StringBuilder builder, Object value, Locale locale) {
+            TemporalAccessor temporal;
+            if (value instanceof TemporalAccessor accessor) {
+                temporal = accessor;
+            } else if (value instanceof Date date) {
+                temporal = date.toInstant();
+            } else if (value instanceof Calendar calendar) {
+                temporal = calendar.toInstant();
+            } else if (value instanceof Number number) {
+                temporal = Instant.ofEpochMilli(number.longValue());
+            } else {
+                builder.append(value);
+                return;
+            }
+            var length = builder.length();
+            try {
+                formatterOf(locale).formatTo(temporal, builder);
+            } catch (DateTimeException e) {
+                // a pattern asking for fields the value doesn't have, like a date pattern for a LocalTime
+                builder.setLength(length);
+                builder.append(value);
+            }
+        }
+
+        private DateTimeFormatter formatterOf(Locale locale) {
+            var key = new DateKey(type, style, locale);
+            var formatter = formatters.get(key);
+            if (formatter == null) {
+                formatter = formatters.computeIfAbsent(key, DateStyle::create);
+            }
+            return formatter;
+        }
+
+        private static DateTimeFormatter create(DateKey key) {
+            var formatStyle = namedStyleOf(key.style);
+            DateTimeFormatter formatter;
+            if (formatStyle == null) {
+                formatter = DateTimeFormatter.ofPattern(key.style, key.locale);
+            } else {
+                formatter = switch (key.type) {
+                    case "date" -> DateTimeFormatter.ofLocalizedDate(formatStyle);
+                    case "time" -> DateTimeFormatter.ofLocalizedTime(formatStyle);
+                    default -> DateTimeFormatter.ofLocalizedDateTime(formatStyle);
+                };
+                formatter = formatter.withLocale(key.locale);
+            }
+            // instants and epoch milliseconds are shown in the time zone of the server
+            return formatter.withZone(ZoneId.systemDefault());
+        }
+    }
+
+    private record DateKey(String type, String style, Locale locale) {
+    }
+}
@@ -0,0 +1,257 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reusable placeholder values for {@link Text#produce(Placeholders)}, an allocation-free alternative to
+ * {@link land.melon.lab.simplelanguageloader.utils.Pair} varargs.
+ * <p>Numbers are kept unboxed, and doubles are formatted with 2 decimal places (rounded down, same as
+ * the Pair based methods) straight into the output without <code>BigDecimal</code>.
+ * Once its arrays have grown to the number of values used, a cleared instance allocates nothing when filled again.</p>
+ * <p>The placeholders of a compiled text are interned, so keys given as string literals are matched by identity.</p>
+ * <p>Placeholders with a format like <code>{amount,number,#,##0.0}</code> are formatted for the {@link #locale(Locale)}
+ * of the instance, primitives straight from their unboxed value.</p>
+ * <p>For example:</p>
+ * <pre>
+ *     var placeholders = Placeholders.local()
+ *          .set("player", player.getName())
+ *          .set("amount", 3.5);
+ *     player.sendMessage(text.produce(placeholders));
+ * </pre>
+ * <p>Instances are not thread safe, use one per thread, or the one of {@link #local()}.</p>
+ */
+public final class Placeholders {
+    private static final ThreadLocal<Placeholders> local = ThreadLocal.withInitial(Placeholders::new);
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private long[] primitives = new long[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int size;
+    private Locale locale;
+
+    /**
+     * Create an empty instance.
+     */
+    public Placeholders() {
+    }
+
+    /**
+     * Get the instance of the current thread, cleared.
+     * <p>The instance is shared by every caller on the thread, so finish using it before calling this again.</p>
+     *
+     * @return the cleared instance of the current thread
+     */
+    public static Placeholders local() {
+        return local.get().clear();
+    }
+
+    /**
+     * Set the value of a placeholder, replacing the previous value of the same key.
+     *
+     * @param key   the placeholder
+     * @param value the value, {@link Component} values are inserted as is by {@link Text#produceAsComponent(Placeholders)}
+     * @return this instance
+     */
+    public Placeholders set(String key, Object value) {
+        var index = slotOf(key);
+        kinds[index] = OBJECT;
+        objects[index] = value;
+        return this;
+    }
+
+    /**
+     * Set the value of a placeholder, replacing the previous value of the same key.
+     *
+     * @param key   the placeholder
+     * @param value the value
+     * @return this instance
+     */
+    public Placeholders set(String key, int value) {
+        return set(key, (long) value);
+    }
+
+    /**
+     * Set the value of a placeholder, replacing the previous value of the same key.
+     *
+     * @param key   the placeholder
+     * @param value the value
+     * @return this instance
+     */
+    public Placeholders set(String key, long value) {
+        var index = slotOf(key);
+        kinds[index] = LONG;
+        primitives[index] = value;
+        objects[index] = null;
+        return this;
+    }
+
+    /**
+     * Set the value of a placeholder, replacing the previous value of the same key.
+     *
+     * @param key   the placeholder
+     * @param value the value, formatted with 2 decimal places rounded down
+     * @return this instance
+     */
+    public Placeholders set(String key, double value) {
+        var index = slotOf(key);
+        kinds[index] = DOUBLE;
+        primitives[index] = Double.doubleToRawLongBits(value);
+        objects[index] = null;
+        return this;
+    }
+
+    /**
+     * Set the locale to format placeholders with a format for, like the locale of the player receiving the text.
+     *
+     * @param locale the locale, null for the default locale
+     * @return this instance
+     */
+    public Placeholders locale(Locale locale) {
+        this.locale = locale;
+        return this;
+    }
+
+    /**
+     * @return the locale placeholders with a format are formatted for
+     */
+    public Locale locale() {
+        return locale == null ? Locale.getDefault(Locale.Category.FORMAT) : locale;
+    }
+
+    /**
+     * Remove all values and the locale, the capacity is kept for reuse.
+     *
+     * @return this instance
+     */
+    public Placeholders clear() {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+        locale = null;
+        return this;
+    }
+
+    /**
+     * @return the number of placeholders with a value
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the value of a placeholder.
+     *
+     * @param key the placeholder
+     * @return the index of the value, or -1 if the placeholder has no value
+     */
+    int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Format the value at an index into the builder.
+     *
+     * @param builder the output buffer
+     * @param index   the index of the value
+     */
+    void appendValue(StringBuilder builder, int index) {
+        switch (kinds[index]) {
+            case LONG -> builder.append(primitives[index]);
+            case DOUBLE -> TextTemplate.appendDecimal(builder, Double.longBitsToDouble(primitives[index]));
+            default -> TextTemplate.appendValue(builder, objects[index]);
+        }
+    }
+
+    /**
+     * Format the value at an index into the builder with the format of its placeholder.
+     *
+     * @param builder the output buffer
+     * @param index   the index of the value
+     * @param format  the format of the placeholder, null for a plain placeholder
+     */
+    void appendValue(StringBuilder builder, int index, PlaceholderFormat format) {
+        if (format == null) {
+            appendValue(builder, index);
+            return;
+        }
+        switch (kinds[index]) {
+            case LONG -> format.format(builder, primitives[index], locale());
+            case DOUBLE -> format.format(builder, Double.longBitsToDouble(primitives[index]), locale());
+            default -> format.format(builder, objects[index], locale());
+        }
+    }
+
+    /**
+     * @return the value at an index if it is a component, otherwise null
+     */
+    Component componentAt(int index) {
+        return objects[index] instanceof Component component ? component : null;
+    }
+
+    /**
+     * @return an independent copy of this instance
+     */
+    Placeholders copy() {
+        var copy = new Placeholders();
+        var capacity = Math.max(INITIAL_CAPACITY, size);
+        copy.keys = Arrays.copyOf(keys, capacity);
+        copy.kinds = Arrays.copyOf(kinds, capacity);
+        copy.primitives = Arrays.copyOf(primitives, capacity);
+        copy.objects = Arrays.copyOf(objects, capacity);
+        copy.size = size;
+        copy.locale = locale;
+        return copy;
+    }
+
+    /**
+     * @return the keys and values in pairs, numbers boxed, followed by the locale, used to identify the arguments of a render
+     */
+    Object[] snapshot() {
+        var snapshot = new Object[size * 2 + 1];
+        snapshot[size * 2] = locale;
+        for (int i = 0; i < size; i++) {
+            snapshot[i * 2] = keys[i];
+            snapshot[i * 2 + 1] = switch (kinds[i]) {
+                case LONG -> primitives[i];
+                case DOUBLE -> Double.longBitsToDouble(primitives[i]);
+                default -> objects[i];
+            };
+        }
+        return snapshot;
+    }
+
+    private int slotOf(String key) {
+        var index = indexOf(key);
+        if (index >= 0) {
+            return index;
+        }
+        if (size == keys.length) {
+            var capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        keys[size] = key;
+        return size++;
+    }
+}
@@ -0,0 +1,151 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.LruCache;
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An opt-in, size-bounded cache of rendered texts, for texts rendered again and again with the same arguments,
+ * like broadcasts, prefixes and static scoreboard rows.
+ * <p>Results are cached by the text and its placeholder values, both the String results of <code>produce</code>
+ * and the Component results of <code>produceAsComponent</code>, the least recently used ones are evicted first.
+ * A hit costs one hash lookup of the arguments.</p>
+ * <p>Entries are bound to the lines a text had when it was rendered, so once a text is hot reloaded its old results
+ * are never returned again and age out of the cache. Placeholder values should be immutable and implement
+ * <code>equals</code> and <code>hashCode</code>, like strings, numbers and components do.</p>
+ * <p>A cache is thread safe and may be shared by every thread:</p>
+ * <pre>
+ *     var cache = new RenderCache(1024);
+ *     player.sendMessage(cache.produce(language.prefix, Pair.of("rank", rank)));
+ * </pre>
+ */
+public final class RenderCache {
+    private final LruCache<Key, Object> cache;
+
+    /**
+     * Create a cache holding at most the given number of rendered results.
+     *
+     * @param maximumSize the maximum number of results, at least 1
+     */
+    public RenderCache(int maximumSize) {
+        this.cache = new LruCache<>(maximumSize);
+    }
+
+    /**
+     * Get the text replaced placeholders, joint to one string, from the cache if rendered before.
+     *
+     * @param text  the text to be rendered
+     * @param pairs the pairs of placeholder and its value
+     * @return the texts replaced placeholders
+     * @see Text#produce(Pair[])
+     */
+    @SafeVarargs
+    public final String produce(Text text, Pair<String, Object>... pairs) {
+        return (String) cache.get(new Key(text.lines(), false, flatten(pairs)), key -> text.produce(pairs));
+    }
+
+    /**
+     * Get the text replaced placeholders, joint to one string, from the cache if rendered before.
+     *
+     * @param text         the text to be rendered
+     * @param placeholders the placeholder values
+     * @return the texts replaced placeholders
+     * @see Text#produce(Placeholders)
+     */
+    public String produce(Text text, Placeholders placeholders) {
+        return (String) cache.get(new Key(text.lines(), false, placeholders.snapshot()), key -> text.produce(placeholders));
+    }
+
+    /**
+     * Get the text replaced placeholders as an Adventure Component, from the cache if rendered before.
+     *
+     * @param text  the text to be rendered
+     * @param pairs the pairs of placeholder and its value
+     * @return the component replaced placeholders
+     * @see Text#produceAsComponent(Pair[])
+     */
+    @SafeVarargs
+    public final Component produceAsComponent(Text text, Pair<String, Object>... pairs) {
+        return (Component) cache.get(new Key(text.lines(), true, flatten(pairs)), key -> text.produceAsComponent(pairs));
+    }
+
+    /**
+     * Get the text replaced placeholders as an Adventure Component, from the cache if rendered before.
+     *
+     * @param text         the text to be rendered
+     * @param placeholders the placeholder values
+     * @return the component replaced placeholders
+     * @see Text#produceAsComponent(Placeholders)
+     */
+    public Component produceAsComponent(Text text, Placeholders placeholders) {
+        return (Component) cache.get(new Key(text.lines(), true, placeholders.snapshot()), key -> text.produceAsComponent(placeholders));
+    }
+
+    /**
+     * Remove all cached results, the hit and miss counters are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of renders served from the cache
+     */
+    public long hits() {
+        return cache.hits();
+    }
+
+    /**
+     * @return the number of renders not found in the cache
+     */
+    public long misses() {
+        return cache.misses();
+    }
+
+    private static Object[] flatten(Pair<String, Object>[] pairs) {
+        var arguments = new Object[pairs.length * 2];
+        for (int i = 0; i < pairs.length; i++) {
+            arguments[i * 2] = pairs[i].key();
+            arguments[i * 2 + 1] = pairs[i].value();
+        }
+        return arguments;
+    }
+
+    /**
+     * Identifies a render by the lines of the text, the kind of result and the placeholder values.
+     */
+    private static final class Key {
+        private final List<TextLine> lines;
+        private final boolean component;
+        private final Object[] arguments;
+        private final int hash;
+
+        private Key(List<TextLine> lines, boolean component, Object[] arguments) {
+            this.lines = lines;
+            this.component = component;
+            this.arguments = arguments;
+            this.hash = (System.identityHashCode(lines) * 31 + Arrays.hashCode(arguments)) * 2 + (component ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && hash == key.hash && lines == key.lines
+                    && component == key.component && Arrays.equals(arguments, key.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
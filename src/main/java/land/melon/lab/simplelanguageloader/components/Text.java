@@ -1,22 +1,20 @@
 package land.melon.lab.simplelanguageloader.components;
 
-import com.google.gson.*;
-import land.melon.lab.simplelanguageloader.utils.ColorConverter;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import land.melon.lab.simplelanguageloader.metrics.Instrumentation;
 import land.melon.lab.simplelanguageloader.utils.Pair;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
-import java.lang.reflect.Type;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import static land.melon.lab.simplelanguageloader.utils.TextUtils.extractPlaceholders;
-import static land.melon.lab.simplelanguageloader.utils.TextUtils.splitMessage;
 
 /**
  * Language component that represents a text, which help you to create single or multi line customizable text with basic and RGB color code, format code, custom placeholders and Spigot BaseComponents support.
@@ -56,6 +54,17 @@ import static land.melon.lab.simplelanguageloader.utils.TextUtils.splitMessage;
  *     // Roses are red, The Smurfs are blue, Unexpected '{' on line 32.
  * </pre>
  *
+ * <p>Placeholders could specify how their values are formatted, for the locale given to {@link Placeholders#locale(java.util.Locale)}:</p>
+ * <pre>
+ *     var balance = Text.of("You have {coins,plural,=0{no coins}one{# coin}other{# coins}}, worth {worth,number,#,##0.00}.");
+ *     player.sendMessage(balance.produce(Placeholders.local().locale(player.locale()).set("coins", 1200).set("worth", 15.5)));
+ *     // You have 1,200 coins, worth 15.50.
+ * </pre>
+ * <p>Numbers also take <code>integer</code>, <code>percent</code> or no style. Durations and epoch milliseconds are
+ * written as <code>{key,duration}</code> or <code>{key,duration,short}</code>, dates as <code>{key,date}</code>,
+ * <code>{key,time}</code> or <code>{key,datetime}</code> with <code>short</code>, <code>medium</code>, <code>long</code>,
+ * <code>full</code> or a pattern as style. Each line is parsed once and formatters are cached per locale.</p>
+ *
  * <p>You could also use BaseComponents to customize the content of placeholders advanced:</p>
  * <pre>
  *     var textWithPlaceholders = Text.of(
@@ -76,17 +85,45 @@ import static land.melon.lab.simplelanguageloader.utils.TextUtils.splitMessage;
  *     // The Smurfs are blue,
  *     // My customized BaseComponent looks pretty cool.(with properties)
  * </pre>
+ *
+ * <p>Text is safe to share between threads, any number of threads may render the same text at once without locking.
+ * Its lines are immutable once compiled and held in an immutable list, and every render works on local buffers only.
+ * Lazily compiled lines are compiled at most a few times under contention, never seen half built.</p>
+ * <p>The one change a text ever sees is a hot reload of its language file by a
+ * {@link land.melon.lab.simplelanguageloader.LanguageRegistry}, which replaces the whole list of lines with a single
+ * volatile write, so texts held by plugins pick up the new content. Every public method is safe to call from any
+ * thread while a reload runs, and works on the list it reads once when called:</p>
+ * <ul>
+ *     <li><code>produce</code>, <code>produceAsList</code>, <code>produceAsComponent</code> and
+ *     <code>produceAsMiniMessage</code> render either all old or all new lines, never a mix.</li>
+ *     <li><code>originalAsList()</code>, <code>expandedAsList()</code>, <code>coloredAsList()</code> and
+ *     <code>metrics()</code> return read-only views of the lines current when called, which keep showing those lines
+ *     after a reload. <code>original()</code>, <code>expanded()</code> and <code>colored()</code> join such a view.</li>
+ *     <li><code>bind</code> returns a {@link BoundText} of the lines current when called, which doesn't follow reloads.</li>
+ * </ul>
+ * <p>Two calls in a row, like rendering several texts for one message, may see a reload in between.</p>
  */
 public final class Text {
     /**
      * The serializer/deserializer for gson to process class Text.
      */
-    public static final TextSerializer gsonSerializer = new TextSerializer();
+    public static final TextSerializer gsonSerializer = new TextSerializer(TextLine::compiled);
+    /**
+     * The serializer/deserializer for gson to process class Text, which creates Text with lazy compiled lines.
+     *
+     * @see #lazyOf(String...)
+     */
+    public static final TextSerializer lazyGsonSerializer = new TextSerializer(TextLine::of);
     private static final Pattern placeholderPattern = Pattern.compile("(\\{)(.*?)(})");
+    /**
+     * lines compiled ahead of time for the deserialization running on the current thread, see {@link #withPrecompiledLines(Function, Supplier)}
+     */
+    private static final ThreadLocal<Function<String, TextLine>> precompiledLines = new ThreadLocal<>();
 
-    private final List<String> textOriginal;
-    private final List<String> textExpanded;
-    private final List<String> textColored;
+    /**
+     * the lines of this text, an immutable list only ever replaced as a whole, see {@link #rebind(Text)}
+     */
+    private volatile List<TextLine> textLines;
 
     /**
      * Create a new Text component with the given text.
@@ -94,36 +131,15 @@ public final class Text {
      * @param texts the texts to be used
      */
     public Text(String... texts) {
-        textOriginal = new ArrayList<>(texts.length);
-        textExpanded = new ArrayList<>(texts.length);
-        textColored = new ArrayList<>(texts.length);
-        Arrays.stream(texts).forEach(this::addTextLine);
+        this(texts, TextLine::compiled);
     }
 
-    /**
-     * Create Text from {@link JsonElement}
-     *
-     * @param jsonElement jsonElement used to deserialize to Text
-     */
-    private Text(JsonElement jsonElement) {
-        int arraySize;
-        if (jsonElement.isJsonPrimitive()) {
-            arraySize = 1;
-        } else if (jsonElement.isJsonArray()) {
-            arraySize = jsonElement.getAsJsonArray().size();
-        } else {
-            throw new RuntimeException("Invalid text element in your language file, only String and Array<String> are allowed.");
-        }
-
-        textOriginal = new ArrayList<>(arraySize);
-        textExpanded = new ArrayList<>(arraySize);
-        textColored = new ArrayList<>(arraySize);
-
-        if (jsonElement.isJsonPrimitive()) {
-            addTextLine(jsonElement.getAsString());
-        } else {
-            jsonElement.getAsJsonArray().forEach(e -> addTextLine(e.getAsString()));
+    private Text(String[] texts, Function<String, TextLine> lineFactory) {
+        var lines = new TextLine[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            lines[i] = lineFactory.apply(texts[i]);
         }
+        textLines = List.of(lines);
     }
 
     /**
@@ -137,21 +153,82 @@ public final class Text {
         return new Text(texts);
     }
 
-    private void addTextLine(String originalString) {
-        textOriginal.add(originalString);
-        var expanded = ColorConverter.convertConvenientColorCode(originalString);
-        textExpanded.add(expanded);
-        var colored = ColorConverter.convertToLegacyColorCode(expanded, '&');
-        textColored.add(colored);
+    /**
+     * Create a new Text component with the given text, which only keeps the original text until it's used.
+     * <p>The expanded, colored and placeholder forms of each line are compiled on first access and cached,
+     * which is thread-safe. It's suitable for large language files where most of the texts are never shown.</p>
+     *
+     * @param texts the text to be used
+     * @return new Text instance
+     */
+    public static Text lazyOf(String... texts) {
+        return new Text(texts, TextLine::of);
+    }
+
+    /**
+     * Run a deserialization on the current thread with lines compiled ahead of time.
+     * <p>While the action runs, the gson adapters of Text on this thread take the line of an original string from
+     * <code>lines</code>, and only create it themselves if that returns null. Used to load a {@link LanguageBundle}
+     * through the gson of the caller.</p>
+     *
+     * @param lines  the precompiled line of an original string, or null
+     * @param action the deserialization
+     * @param <R>    type of the result
+     * @return the result of the action
+     */
+    static <R> R withPrecompiledLines(Function<String, TextLine> lines, Supplier<R> action) {
+        var previous = precompiledLines.get();
+        precompiledLines.set(lines);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                precompiledLines.remove();
+            } else {
+                precompiledLines.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Replace the content of this text with the content of another text.
+     * <p>The lines are swapped with a single write, a render running at the same time sees either the old or the new lines as a whole.</p>
+     *
+     * @param source text providing the new content
+     */
+    void rebind(Text source) {
+        textLines = source.textLines;
+    }
+
+    /**
+     * @return the current lines, a new list instance after every {@link #rebind(Text)}
+     */
+    List<TextLine> lines() {
+        return textLines;
+    }
+
+    private List<String> linesView(Function<TextLine, String> form) {
+        var lines = textLines;
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return form.apply(lines.get(index));
+            }
+
+            @Override
+            public int size() {
+                return lines.size();
+            }
+        };
     }
 
     /**
      * Get the original text (which used to create Text instance) as a List, each element is a single line.
      *
-     * @return original texts
+     * @return read-only view of the original texts
      */
     public List<String> originalAsList() {
-        return textOriginal;
+        return linesView(TextLine::original);
     }
 
     /**
@@ -166,10 +243,10 @@ public final class Text {
     /**
      * Get the expanded text (which expands the color code in patterns looks like <code>&amp;#66ccff</code> to classic form <code>&amp;x&amp;6&amp;6&amp;c&amp;c&amp;f&amp;f</code>), each element is a single line.
      *
-     * @return the expanded texts
+     * @return read-only view of the expanded texts
      */
     public List<String> expandedAsList() {
-        return textExpanded;
+        return linesView(TextLine::expanded);
     }
 
     /**
@@ -184,10 +261,10 @@ public final class Text {
     /**
      * Get the colored text (which replaces ampersand sign(&amp;) to section sign(§)), each element is a single line.
      *
-     * @return the colored texts
+     * @return read-only view of the colored texts
      */
     public List<String> coloredAsList() {
-        return textColored;
+        return linesView(TextLine::colored);
     }
 
     /**
@@ -199,6 +276,27 @@ public final class Text {
         return String.join("\n", coloredAsList());
     }
 
+    /**
+     * Get the measurements of each line, like the visible length and the pixel width, to wrap or center the text.
+     * <p>The measurements are computed once per line and cached.</p>
+     *
+     * @return read-only view of the measurements of each line
+     */
+    public List<LineMetrics> metrics() {
+        var lines = textLines;
+        return new AbstractList<>() {
+            @Override
+            public LineMetrics get(int index) {
+                return lines.get(index).metrics();
+            }
+
+            @Override
+            public int size() {
+                return lines.size();
+            }
+        };
+    }
+
     /**
      * Get the text replaced placeholders, each element is a single line.
      *
@@ -207,12 +305,13 @@ public final class Text {
      */
     @SafeVarargs
     public final List<String> produceAsList(Pair<String, Object>... pairs) {
-        List<String> result = new ArrayList<>(textColored.size());
-        coloredAsList().forEach(text -> {
-            for (var pair : pairs) {
-                result.add(text.replace("{" + pair.key() + "}", preProcess(pair.value()).toString()));
-            }
-        });
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsList(lines, pairs);
+        }
+        var start = System.nanoTime();
+        var result = renderAsList(lines, pairs);
+        recordRender(lines, start, pairs);
         return result;
     }
 
@@ -224,50 +323,282 @@ public final class Text {
      */
     @SafeVarargs
     public final String produce(Pair<String, Object>... pairs) {
-        var result = colored();
-        for (var pair : pairs) {
-            result = result.replace("{" + pair.key() + "}", preProcess(pair.value()).toString());
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return render(lines, pairs);
         }
+        var start = System.nanoTime();
+        var result = render(lines, pairs);
+        recordRender(lines, start, pairs);
         return result;
     }
 
+    /**
+     * Get the text replaced placeholders as an Adventure Component, lines are joint with {@link Component#newline()}.
+     * <p>{@link Component} values are inserted as is, other values are inserted as legacy text.</p>
+     *
+     * @param pairs the pairs of placeholder and its value
+     * @return the component replaced placeholders
+     */
     @SafeVarargs
     public final Component produceAsComponent(Pair<String, Object>... pairs) {
-        var collected =
-                Arrays.stream(pairs).collect(Collectors.partitioningBy(t -> t.value() instanceof Component));
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsComponent(lines, pairs);
+        }
+        var start = System.nanoTime();
+        var result = renderAsComponent(lines, pairs);
+        recordRender(lines, start, pairs);
+        return result;
+    }
+
+    /**
+     * Get the text replaced placeholders, each element is a single line.
+     *
+     * @param placeholders the placeholder values
+     * @return the texts replaced placeholders
+     */
+    public List<String> produceAsList(Placeholders placeholders) {
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsList(lines, placeholders);
+        }
+        var start = System.nanoTime();
+        var result = renderAsList(lines, placeholders);
+        recordRender(lines, start, placeholders);
+        return result;
+    }
+
+    /**
+     * Get the text replaced placeholders, joint to one string.
+     * <p>Same as {@link #produce(Pair[])}, without the allocations of the pairs and boxed numbers.</p>
+     *
+     * @param placeholders the placeholder values
+     * @return the texts replaced placeholders
+     */
+    public String produce(Placeholders placeholders) {
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return render(lines, placeholders);
+        }
+        var start = System.nanoTime();
+        var result = render(lines, placeholders);
+        recordRender(lines, start, placeholders);
+        return result;
+    }
+
+    /**
+     * Get the text replaced placeholders as an Adventure Component, lines are joint with {@link Component#newline()}.
+     * <p>{@link Component} values are inserted as is, other values are inserted as legacy text.</p>
+     *
+     * @param placeholders the placeholder values
+     * @return the component replaced placeholders
+     */
+    public Component produceAsComponent(Placeholders placeholders) {
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsComponent(lines, placeholders);
+        }
+        var start = System.nanoTime();
+        var result = renderAsComponent(lines, placeholders);
+        recordRender(lines, start, placeholders);
+        return result;
+    }
 
-        var componentPlaceholderMap =
-                collected.get(true).stream().collect(Collectors.toMap(Pair::key, t -> (Component) t.value()));
-        var primitivePlaceholderMap =
-                collected.get(false).stream().collect(Collectors.toMap(Pair::key, Pair::value));
-        var coloredLines =
-                coloredAsList();
+    /**
+     * Get the text replaced placeholders as an Adventure Component, parsing the lines in
+     * <a href="https://docs.advntr.dev/minimessage/format.html">MiniMessage</a> format instead of legacy color codes.
+     * <p>Each line is parsed once and rendered by filling its placeholder slots, a placeholder inside a tag argument
+     * makes its line parsed again on every render. {@link Component} values are inserted as is, other values are
+     * inserted as plain text in the style of the tags around the placeholder. Requires MiniMessage at runtime.</p>
+     *
+     * @param pairs the pairs of placeholder and its value
+     * @return the component replaced placeholders
+     */
+    @SafeVarargs
+    public final Component produceAsMiniMessage(Pair<String, Object>... pairs) {
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsMiniMessage(lines, pairs);
+        }
+        var start = System.nanoTime();
+        var result = renderAsMiniMessage(lines, pairs);
+        recordRender(lines, start, pairs);
+        return result;
+    }
 
+    /**
+     * Get the text replaced placeholders as an Adventure Component, parsing the lines in MiniMessage format.
+     * <p>See {@link #produceAsMiniMessage(Pair[])}.</p>
+     *
+     * @param placeholders the placeholder values
+     * @return the component replaced placeholders
+     */
+    public Component produceAsMiniMessage(Placeholders placeholders) {
+        var lines = textLines;
+        if (!Instrumentation.enabled()) {
+            return renderAsMiniMessage(lines, placeholders);
+        }
+        var start = System.nanoTime();
+        var result = renderAsMiniMessage(lines, placeholders);
+        recordRender(lines, start, placeholders);
+        return result;
+    }
+
+    /**
+     * Fill in the placeholder values shared by many renders once, to render the text for many recipients.
+     *
+     * @param shared the shared placeholder values, copied so the instance may be reused afterwards
+     * @return the text with the shared values filled in
+     * @see BoundText
+     */
+    public BoundText bind(Placeholders shared) {
+        return new BoundText(textLines, shared.copy());
+    }
+
+    /**
+     * Fill in the placeholder values shared by many renders once, to render the text for many recipients.
+     *
+     * @param pairs the pairs of shared placeholder and its value
+     * @return the text with the shared values filled in
+     * @see BoundText
+     */
+    @SafeVarargs
+    public final BoundText bind(Pair<String, Object>... pairs) {
+        var shared = new Placeholders();
+        for (var pair : pairs) {
+            // the first pair of a placeholder wins, like in produce
+            if (shared.indexOf(pair.key()) < 0) {
+                shared.set(pair.key(), pair.value());
+            }
+        }
+        return new BoundText(textLines, shared);
+    }
+
+    private static List<String> renderAsList(List<TextLine> lines, Pair<String, Object>[] pairs) {
+        List<String> result = new ArrayList<>(lines.size());
+        for (var line : lines) {
+            result.add(line.template().render(pairs));
+        }
+        return result;
+    }
+
+    private static String render(List<TextLine> lines, Pair<String, Object>[] pairs) {
+        if (lines.size() == 1) {
+            return lines.get(0).template().render(pairs);
+        }
+        var capacity = lines.size();
+        for (var line : lines) {
+            capacity += line.template().estimatedLength();
+        }
+        var builder = new StringBuilder(capacity);
+        for (int i = 0; i < lines.size(); i++) {
+            if (i != 0) {
+                builder.append('\n');
+            }
+            lines.get(i).template().renderTo(builder, pairs);
+        }
+        return builder.toString();
+    }
+
+    private static Component renderAsComponent(List<TextLine> lines, Pair<String, Object>[] pairs) {
+        if (lines.size() == 1) {
+            return lines.get(0).template().componentTemplate().render(pairs);
+        }
         var resultBuilder = Component.text();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            resultBuilder.append(lines.get(lineIndex).template().componentTemplate().render(pairs));
+            if (lineIndex != lines.size() - 1) {
+                resultBuilder.append(Component.newline());
+            }
+        }
+        return resultBuilder.build();
+    }
+
+    private static List<String> renderAsList(List<TextLine> lines, Placeholders placeholders) {
+        List<String> result = new ArrayList<>(lines.size());
+        for (var line : lines) {
+            result.add(line.template().render(placeholders));
+        }
+        return result;
+    }
 
-        for (int lineIndex = 0; lineIndex < coloredLines.size(); lineIndex++) {
-            var mutableLineString = coloredLines.get(lineIndex);
-            for (var primitiveKey : primitivePlaceholderMap.keySet()) {
-                mutableLineString = mutableLineString.replace("{" + primitiveKey + "}", preProcess(primitivePlaceholderMap.get(primitiveKey)).toString());
+    private static String render(List<TextLine> lines, Placeholders placeholders) {
+        if (lines.size() == 1) {
+            return lines.get(0).template().render(placeholders);
+        }
+        var capacity = lines.size();
+        for (var line : lines) {
+            capacity += line.template().estimatedLength();
+        }
+        var builder = new StringBuilder(capacity);
+        for (int i = 0; i < lines.size(); i++) {
+            if (i != 0) {
+                builder.append('\n');
             }
-            var placeholders = extractPlaceholders(mutableLineString);
-            var split = splitMessage(mutableLineString);
-            var lineComponent = Component.text();
-
-            for (var i = 0; i < split.length; i++) {
-                lineComponent.append(LegacyComponentSerializer.legacySection().deserialize(split[i]));
-                if (i < placeholders.size()) {
-                    lineComponent.append(componentPlaceholderMap.getOrDefault(placeholders.get(i), Component.text("{" + placeholders.get(i) + "}").asComponent()));
-                }
+            lines.get(i).template().renderTo(builder, placeholders);
+        }
+        return builder.toString();
+    }
+
+    private static Component renderAsComponent(List<TextLine> lines, Placeholders placeholders) {
+        if (lines.size() == 1) {
+            return lines.get(0).template().componentTemplate().render(placeholders);
+        }
+        var resultBuilder = Component.text();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            resultBuilder.append(lines.get(lineIndex).template().componentTemplate().render(placeholders));
+            if (lineIndex != lines.size() - 1) {
+                resultBuilder.append(Component.newline());
             }
+        }
+        return resultBuilder.build();
+    }
 
-            resultBuilder.append(lineComponent);
-            if (lineIndex != coloredLines.size() - 1) {
+    private static Component renderAsMiniMessage(List<TextLine> lines, Pair<String, Object>[] pairs) {
+        if (lines.size() == 1) {
+            return lines.get(0).miniMessageTemplate().render(pairs);
+        }
+        var resultBuilder = Component.text();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            resultBuilder.append(lines.get(lineIndex).miniMessageTemplate().render(pairs));
+            if (lineIndex != lines.size() - 1) {
                 resultBuilder.append(Component.newline());
             }
         }
+        return resultBuilder.build();
+    }
 
-        return resultBuilder.asComponent();
+    private static Component renderAsMiniMessage(List<TextLine> lines, Placeholders placeholders) {
+        if (lines.size() == 1) {
+            return lines.get(0).miniMessageTemplate().render(placeholders);
+        }
+        var resultBuilder = Component.text();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            resultBuilder.append(lines.get(lineIndex).miniMessageTemplate().render(placeholders));
+            if (lineIndex != lines.size() - 1) {
+                resultBuilder.append(Component.newline());
+            }
+        }
+        return resultBuilder.build();
+    }
+
+    private void recordRender(List<TextLine> lines, long start, Pair<String, Object>[] pairs) {
+        var nanos = System.nanoTime() - start;
+        var unresolved = 0;
+        for (var line : lines) {
+            unresolved += line.template().unresolvedCount(pairs);
+        }
+        Instrumentation.metrics().rendered(this, nanos, unresolved);
+    }
+
+    private void recordRender(List<TextLine> lines, long start, Placeholders placeholders) {
+        var nanos = System.nanoTime() - start;
+        var unresolved = 0;
+        for (var line : lines) {
+            unresolved += line.template().unresolvedCount(placeholders);
+        }
+        Instrumentation.metrics().rendered(this, nanos, unresolved);
     }
 
     /**
@@ -281,33 +612,81 @@ public final class Text {
         return colored();
     }
 
-    private Object preProcess(Object object) {
-        if (object instanceof Double || object instanceof Float) {
-            // format as 2 decimal places BigDecimal
-            return BigDecimal.valueOf(((Number) object).doubleValue()).setScale(2, RoundingMode.DOWN);
-        } else
-            return object;
-    }
+    /**
+     * Streaming gson adapter of Text, reads and writes the lines straight from/to the json stream without building a tree.
+     * <p>A single line text is a json String, a multi line text is an Array of String.</p>
+     */
+    private static class TextSerializer extends TypeAdapter<Text> {
+        private final Function<String, TextLine> lineFactory;
+
+        private TextSerializer(Function<String, TextLine> lineFactory) {
+            this.lineFactory = lineFactory;
+        }
 
-    private static class TextSerializer implements JsonSerializer<Text>, JsonDeserializer<Text> {
         @Override
-        public JsonElement serialize(Text textInstance, Type type, JsonSerializationContext jsonSerializationContext) {
-            if (textInstance.textOriginal.isEmpty()) {
-                return new JsonPrimitive("");
-            } else if (textInstance.textOriginal.size() == 1) {
-                return new JsonPrimitive(textInstance.textOriginal.get(0));
+        public void write(JsonWriter out, Text textInstance) throws IOException {
+            if (textInstance == null) {
+                out.nullValue();
+                return;
+            }
+            var lines = textInstance.textLines;
+            if (lines.isEmpty()) {
+                out.value("");
+            } else if (lines.size() == 1) {
+                out.value(lines.get(0).original());
             } else {
-                var textArray = new JsonArray(textInstance.textOriginal.size());
-                for (var text : textInstance.textOriginal) {
-                    textArray.add(text);
+                out.beginArray();
+                for (var line : lines) {
+                    out.value(line.original());
                 }
-                return textArray;
+                out.endArray();
             }
         }
 
         @Override
-        public Text deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            return new Text(jsonElement);
+        public Text read(JsonReader in) throws IOException {
+            switch (in.peek()) {
+                case NULL -> {
+                    in.nextNull();
+                    return null;
+                }
+                case STRING, NUMBER, BOOLEAN -> {
+                    return new Text(new String[]{readLine(in)}, lineFactory());
+                }
+                case BEGIN_ARRAY -> {
+                    var lines = new ArrayList<String>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        lines.add(readLine(in));
+                    }
+                    in.endArray();
+                    return new Text(lines.toArray(String[]::new), lineFactory());
+                }
+                default -> throw invalidTextElement(in);
+            }
+        }
+
+        private Function<String, TextLine> lineFactory() {
+            var precompiled = precompiledLines.get();
+            if (precompiled == null) {
+                return lineFactory;
+            }
+            return original -> {
+                var line = precompiled.apply(original);
+                return line != null ? line : lineFactory.apply(original);
+            };
+        }
+
+        private static String readLine(JsonReader in) throws IOException {
+            return switch (in.peek()) {
+                case STRING, NUMBER -> in.nextString();
+                case BOOLEAN -> String.valueOf(in.nextBoolean());
+                default -> throw invalidTextElement(in);
+            };
+        }
+
+        private static JsonParseException invalidTextElement(JsonReader in) {
+            return new JsonParseException("Invalid text element in your language file at " + in.getPath() + ", only String and Array<String> are allowed.");
         }
     }
 }
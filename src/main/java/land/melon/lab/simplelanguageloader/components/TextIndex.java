@@ -0,0 +1,79 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable index of every {@link Text} in a language container by its dot separated path,
+ * for lookups by a string key like <code>shop.purchase.success</code> without reflection.
+ * <p>Paths are the ones of {@link TextWalker}, nested objects, maps, collections and arrays included.
+ * The container is walked once when the index is built; a lookup is a single read of an immutable hash table,
+ * safe from any number of threads without locking.</p>
+ * <p>The index refers to the texts themselves, so it sees their new content after a hot reload updates them in place.
+ * Texts added to the container afterwards need a new index.</p>
+ */
+public final class TextIndex {
+    private static final TextIndex EMPTY = new TextIndex(Map.of());
+
+    private final Map<String, Text> texts;
+
+    private TextIndex(Map<String, Text> texts) {
+        this.texts = texts;
+    }
+
+    /**
+     * Index every text in a container.
+     *
+     * @param container the language container, may be null for an empty index
+     * @return the index of the container
+     */
+    public static TextIndex of(Object container) {
+        if (container == null) {
+            return EMPTY;
+        }
+        var texts = new LinkedHashMap<String, Text>();
+        // colliding paths, like a map key containing a dot, keep the text walked first
+        TextWalker.walk(container, texts::putIfAbsent);
+        return texts.isEmpty() ? EMPTY : new TextIndex(Map.copyOf(texts));
+    }
+
+    /**
+     * @return an index without texts
+     */
+    public static TextIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get the text at a path.
+     *
+     * @param key the dot separated path of the text
+     * @return the text, or null if the container has no text at the path
+     */
+    public Text get(String key) {
+        return texts.get(key);
+    }
+
+    /**
+     * @param key the dot separated path of a text
+     * @return true if the container has a text at the path
+     */
+    public boolean contains(String key) {
+        return texts.containsKey(key);
+    }
+
+    /**
+     * @return the paths of every text, unmodifiable and in no particular order
+     */
+    public Set<String> keys() {
+        return texts.keySet();
+    }
+
+    /**
+     * @return the number of indexed texts
+     */
+    public int size() {
+        return texts.size();
+    }
+}
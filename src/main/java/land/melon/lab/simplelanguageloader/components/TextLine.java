@@ -0,0 +1,133 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.ColorConverter;
+import land.melon.lab.simplelanguageloader.utils.TextUtils;
+import land.melon.lab.simplelanguageloader.utils.WeakPool;
+
+/**
+ * A single line of a {@link Text}, holding the original string and its compiled forms.
+ * <p>The expanded, colored and template forms are compiled together on first access and cached.
+ * Compilation is idempotent and the compiled forms are immutable, so a racing first access from several threads
+ * at worst compiles the line more than once, and every reader sees a fully built result.</p>
+ * <p>Lines are immutable, so lines with the same original string are shared through a weak pool across texts,
+ * containers and locales, see {@link #of(String)}. A compiled line only keeps separate expanded and colored
+ * strings when they differ from the original.</p>
+ */
+final class TextLine {
+    private static final WeakPool<String, TextLine> pool = new WeakPool<>();
+
+    private final String original;
+    private volatile Compiled compiled;
+    private volatile LineMetrics metrics;
+    private volatile MiniMessageTemplate miniMessageTemplate;
+
+    TextLine(String original) {
+        this.original = original;
+    }
+
+    /**
+     * Create a line from forms compiled ahead of time.
+     *
+     * @param original the original string
+     * @param expanded the expanded string
+     * @param colored  the colored string
+     * @param template the template of the colored string
+     */
+    TextLine(String original, String expanded, String colored, TextTemplate template) {
+        this.original = original;
+        this.compiled = new Compiled(expanded, colored, template);
+    }
+
+    /**
+     * Get the shared line of an original string, compiled on first use.
+     *
+     * @param original the original string
+     * @return the shared line
+     */
+    static TextLine of(String original) {
+        return pool.intern(original, TextLine::new);
+    }
+
+    /**
+     * Get the shared line of an original string and compile it immediately.
+     *
+     * @param original the original string
+     * @return the compiled shared line
+     */
+    static TextLine compiled(String original) {
+        var line = of(original);
+        line.compile();
+        return line;
+    }
+
+    /**
+     * Share a line created elsewhere, like one compiled ahead of time.
+     *
+     * @param line the line
+     * @return the shared line of the same original string, the given line if there was none
+     */
+    static TextLine intern(TextLine line) {
+        return pool.intern(line.original, line);
+    }
+
+    String original() {
+        return original;
+    }
+
+    String expanded() {
+        return compiled().expanded;
+    }
+
+    String colored() {
+        return compiled().colored;
+    }
+
+    TextTemplate template() {
+        return compiled().template;
+    }
+
+    /**
+     * @return the MiniMessage form of the original line, parsed on first access
+     */
+    MiniMessageTemplate miniMessageTemplate() {
+        var result = miniMessageTemplate;
+        if (result == null) {
+            result = MiniMessageTemplate.compile(original);
+            miniMessageTemplate = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the measurements of the colored line, computed on first access
+     */
+    LineMetrics metrics() {
+        var result = metrics;
+        if (result == null) {
+            var colored = colored();
+            result = new LineMetrics(TextUtils.visibleLength(colored), TextUtils.pixelWidth(colored), template().placeholderCount());
+            metrics = result;
+        }
+        return result;
+    }
+
+    /**
+     * Compile the line now if it is not compiled yet.
+     */
+    void compile() {
+        compiled();
+    }
+
+    private Compiled compiled() {
+        var result = compiled;
+        if (result == null) {
+            var converted = ColorConverter.convertColorCodes(original);
+            result = new Compiled(converted.key(), converted.value(), TextTemplate.compile(converted.value()));
+            compiled = result;
+        }
+        return result;
+    }
+
+    private record Compiled(String expanded, String colored, TextTemplate template) {
+    }
+}
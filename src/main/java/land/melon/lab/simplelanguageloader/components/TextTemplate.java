@@ -0,0 +1,381 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import land.melon.lab.simplelanguageloader.utils.TextUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A single colored line of a {@link Text}, precompiled into literal segments and placeholder slots.
+ * <p>The line is parsed once when the {@link TextLine} is compiled, rendering is a single pass over the segments.</p>
+ * <p>A placeholder is either the innermost <code>{key}</code> pair of braces, which matches what a plain
+ * <code>String.replace("{" + key + "}", value)</code> would have replaced, or a plural placeholder like
+ * <code>{count,plural,one{# coin}other{# coins}}</code>, whose nested braces are matched by depth.
+ * See {@link TextUtils#placeholderEnd(String, int)}.</p>
+ * <p>A placeholder may carry a format like <code>{amount,number,#,##0.0}</code>, see {@link PlaceholderFormat}.
+ * Its value is formatted for the locale of the {@link Placeholders}, or the default locale for pairs.</p>
+ */
+final class TextTemplate {
+    private static final String[] NO_PLACEHOLDERS = new String[0];
+    private static final PlaceholderFormat[] NO_FORMATS = new PlaceholderFormat[0];
+    private static final int[] NO_SLOTS = new int[0];
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+    /**
+     * hundredths below which every value is exact in a double, so {@link #appendDecimal(StringBuilder, double)} needs no BigDecimal
+     */
+    private static final long MAX_EXACT_CENTS = 1L << 52;
+
+    /**
+     * literal segments, always one more than {@link #placeholders}
+     */
+    private final String[] literals;
+    private final String[] placeholders;
+    /**
+     * format of each placeholder, null for plain placeholders
+     */
+    private final PlaceholderFormat[] formats;
+    private final int literalLength;
+    private volatile ComponentTemplate componentTemplate;
+
+    private TextTemplate(String[] literals, String[] placeholders, PlaceholderFormat[] formats, int literalLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.formats = formats;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parse a colored line into a template.
+     *
+     * @param line the colored line
+     * @return the compiled template
+     */
+    static TextTemplate compile(String line) {
+        return fromSlots(line, slotBounds(line));
+    }
+
+    /**
+     * Find the placeholder slots of a colored line.
+     *
+     * @param line the colored line
+     * @return the index of the opening and the closing brace of every slot, in pairs
+     */
+    static int[] slotBounds(String line) {
+        var open = line.indexOf('{');
+        if (open < 0) {
+            return NO_SLOTS;
+        }
+        var lastClose = line.lastIndexOf('}');
+        var bounds = new int[8];
+        var length = 0;
+        while (open >= 0 && open < lastClose) {
+            var close = TextUtils.placeholderEnd(line, open);
+            if (close < 0) {
+                open = line.indexOf('{', open + 1);
+                continue;
+            }
+            if (length == bounds.length) {
+                bounds = Arrays.copyOf(bounds, length * 2);
+            }
+            bounds[length++] = open;
+            bounds[length++] = close;
+            open = line.indexOf('{', close + 1);
+        }
+        return Arrays.copyOf(bounds, length);
+    }
+
+    /**
+     * Build the template of a colored line from slots found ahead of time by {@link #slotBounds(String)}.
+     *
+     * @param line       the colored line
+     * @param slotBounds the index of the opening and the closing brace of every slot, in pairs
+     * @return the compiled template
+     */
+    static TextTemplate fromSlots(String line, int[] slotBounds) {
+        var slotCount = slotBounds.length / 2;
+        if (slotCount == 0) {
+            return new TextTemplate(new String[]{line}, NO_PLACEHOLDERS, NO_FORMATS, line.length());
+        }
+        var literals = new String[slotCount + 1];
+        var placeholders = new String[slotCount];
+        var formats = new PlaceholderFormat[slotCount];
+        var literalStart = 0;
+        var literalLength = 0;
+        for (int i = 0; i < slotCount; i++) {
+            var open = slotBounds[i * 2];
+            var close = slotBounds[i * 2 + 1];
+            literals[i] = line.substring(literalStart, open);
+            literalLength += open - literalStart;
+            var content = line.substring(open + 1, close);
+            var comma = content.indexOf(',');
+            formats[i] = comma > 0 ? PlaceholderFormat.parse(content, comma) : null;
+            // interned so the keys of Placeholders, usually string literals, match by identity
+            placeholders[i] = (formats[i] == null ? content : content.substring(0, comma).trim()).intern();
+            literalStart = close + 1;
+        }
+        literals[slotCount] = line.substring(literalStart);
+        literalLength += line.length() - literalStart;
+        return new TextTemplate(literals, placeholders, formats, literalLength);
+    }
+
+    /**
+     * @return true if the line contains no placeholder and renders to itself
+     */
+    boolean isLiteral() {
+        return placeholders.length == 0;
+    }
+
+    /**
+     * @return the number of placeholder slots of the line
+     */
+    int placeholderCount() {
+        return placeholders.length;
+    }
+
+    /**
+     * @return the placeholder of each slot
+     */
+    String[] placeholders() {
+        return placeholders;
+    }
+
+    /**
+     * @return the format of each slot, null for plain placeholders
+     */
+    PlaceholderFormat[] formats() {
+        return formats;
+    }
+
+    /**
+     * @return the literal segment before a slot, or after the last slot at the index {@link #placeholderCount()}
+     */
+    String literal(int index) {
+        return literals[index];
+    }
+
+    /**
+     * @return the placeholder of a slot as it was written, rendered when it has no value
+     */
+    String unresolved(int slot) {
+        return formats[slot] == null ? placeholders[slot] : formats[slot].source();
+    }
+
+    /**
+     * @return the expected length of the rendered line, used to size output buffers up front
+     */
+    int estimatedLength() {
+        return literalLength + placeholders.length * ESTIMATED_VALUE_LENGTH;
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     *
+     * @param pairs the pairs of placeholder and its value
+     * @return the rendered line
+     */
+    String render(Pair<String, Object>[] pairs) {
+        if (isLiteral()) {
+            return literals[0];
+        }
+        var builder = new StringBuilder(estimatedLength());
+        renderTo(builder, pairs);
+        return builder.toString();
+    }
+
+    /**
+     * Render the line into the given builder.
+     * <p>Placeholders without a value are kept as is.</p>
+     *
+     * @param builder the output buffer
+     * @param pairs   the pairs of placeholder and its value
+     */
+    void renderTo(StringBuilder builder, Pair<String, Object>[] pairs) {
+        builder.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            var pairIndex = indexOf(placeholders[i], pairs);
+            if (pairIndex < 0) {
+                builder.append('{').append(unresolved(i)).append('}');
+            } else {
+                appendValue(builder, pairs[pairIndex].value(), formats[i]);
+            }
+            builder.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Render the line with the given placeholder values.
+     *
+     * @param placeholders the placeholder values
+     * @return the rendered line
+     */
+    String render(Placeholders placeholders) {
+        if (isLiteral()) {
+            return literals[0];
+        }
+        var builder = new StringBuilder(estimatedLength());
+        renderTo(builder, placeholders);
+        return builder.toString();
+    }
+
+    /**
+     * Render the line into the given builder.
+     * <p>Placeholders without a value are kept as is.</p>
+     *
+     * @param builder      the output buffer
+     * @param placeholders the placeholder values
+     */
+    void renderTo(StringBuilder builder, Placeholders placeholders) {
+        builder.append(literals[0]);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            var valueIndex = placeholders.indexOf(this.placeholders[i]);
+            if (valueIndex < 0) {
+                builder.append('{').append(unresolved(i)).append('}');
+            } else {
+                placeholders.appendValue(builder, valueIndex, formats[i]);
+            }
+            builder.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * @return the number of placeholders without a value among the pairs
+     */
+    int unresolvedCount(Pair<String, Object>[] pairs) {
+        var count = 0;
+        for (var placeholder : placeholders) {
+            if (indexOf(placeholder, pairs) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of placeholders without a value among the placeholder values
+     */
+    int unresolvedCount(Placeholders placeholders) {
+        var count = 0;
+        for (var placeholder : this.placeholders) {
+            if (placeholders.indexOf(placeholder) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fill the placeholders which have a value, the others are kept as placeholders of the returned template.
+     *
+     * @param placeholders the placeholder values
+     * @return the template with the given values filled in
+     */
+    TextTemplate bind(Placeholders placeholders) {
+        if (isLiteral()) {
+            return this;
+        }
+        var boundLiterals = new ArrayList<String>(literals.length);
+        var boundPlaceholders = new ArrayList<String>(this.placeholders.length);
+        var boundFormats = new ArrayList<PlaceholderFormat>(this.placeholders.length);
+        var literal = new StringBuilder(estimatedLength()).append(literals[0]);
+        var boundLength = 0;
+        for (int i = 0; i < this.placeholders.length; i++) {
+            var valueIndex = placeholders.indexOf(this.placeholders[i]);
+            if (valueIndex < 0) {
+                boundLiterals.add(literal.toString());
+                boundLength += literal.length();
+                literal.setLength(0);
+                boundPlaceholders.add(this.placeholders[i]);
+                boundFormats.add(formats[i]);
+            } else {
+                placeholders.appendValue(literal, valueIndex, formats[i]);
+            }
+            literal.append(literals[i + 1]);
+        }
+        boundLiterals.add(literal.toString());
+        boundLength += literal.length();
+        return new TextTemplate(boundLiterals.toArray(String[]::new), boundPlaceholders.toArray(String[]::new),
+                boundFormats.toArray(PlaceholderFormat[]::new), boundLength);
+    }
+
+    /**
+     * Get the Adventure form of this template, the literal segments are deserialized on first use only.
+     *
+     * @return the component template
+     */
+    ComponentTemplate componentTemplate() {
+        var template = componentTemplate;
+        if (template == null) {
+            // racy but idempotent, the template is immutable once built
+            template = ComponentTemplate.compile(literals, this);
+            componentTemplate = template;
+        }
+        return template;
+    }
+
+    static int indexOf(String placeholder, Pair<String, Object>[] pairs) {
+        for (int i = 0; i < pairs.length; i++) {
+            if (placeholder.equals(pairs[i].key())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Append a value of a pair, formatted for the default locale if the placeholder has a format.
+     *
+     * @param builder the output buffer
+     * @param value   the value
+     * @param format  the format of the placeholder, null for a plain placeholder
+     */
+    static void appendValue(StringBuilder builder, Object value, PlaceholderFormat format) {
+        if (format == null) {
+            appendValue(builder, value);
+        } else {
+            format.format(builder, value, Locale.getDefault(Locale.Category.FORMAT));
+        }
+    }
+
+    static void appendValue(StringBuilder builder, Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            appendDecimal(builder, ((Number) value).doubleValue());
+        } else {
+            builder.append(value);
+        }
+    }
+
+    /**
+     * Append a double truncated to 2 decimal places.
+     * <p>Same output as <code>BigDecimal.valueOf(value).setScale(2, RoundingMode.DOWN)</code>,
+     * but without allocating for values below {@link #MAX_EXACT_CENTS} hundredths.</p>
+     *
+     * @param builder the output buffer
+     * @param value   the value
+     */
+    static void appendDecimal(StringBuilder builder, double value) {
+        var magnitude = Math.abs(value);
+        if (!(magnitude < MAX_EXACT_CENTS / 100.0)) {
+            // huge values and NaN/infinity (which BigDecimal rejects) keep the exact BigDecimal behavior
+            builder.append(BigDecimal.valueOf(value).setScale(2, RoundingMode.DOWN));
+            return;
+        }
+        // BigDecimal.valueOf truncates the shortest decimal representation of the value, and cents / 100.0 is
+        // at most that representation exactly when it is not above the value, so correct the estimate both ways
+        var cents = (long) (magnitude * 100);
+        while ((cents + 1) / 100.0 <= magnitude) {
+            cents++;
+        }
+        while (cents > 0 && cents / 100.0 > magnitude) {
+            cents--;
+        }
+        if (value < 0 && cents != 0) {
+            builder.append('-');
+        }
+        var fraction = (int) (cents % 100);
+        builder.append(cents / 100).append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+}
@@ -0,0 +1,271 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Walks a language container and visits every {@link Text} in it with its dot separated path.
+ * <p>Fields are named like gson does by default: by {@link SerializedName} if present, otherwise by the field name,
+ * static and transient fields are skipped. Nested objects, maps, collections and arrays are walked into,
+ * map entries are named by their key and elements of collections and arrays by their index.</p>
+ * <p>For example <code>shop.purchase.success</code> is the text in field <code>success</code> of the object in field
+ * <code>purchase</code> of the object in field <code>shop</code> of the container.</p>
+ */
+public final class TextWalker {
+    /**
+     * lines compiled by a single task, large enough to outweigh the cost of forking it
+     */
+    private static final int COMPILE_BATCH_SIZE = 256;
+
+    private TextWalker() {
+    }
+
+    /**
+     * Visit every text in a container.
+     *
+     * @param container the language container
+     * @param visitor   called with the path and the text
+     */
+    public static void walk(Object container, BiConsumer<String, Text> visitor) {
+        walk(container, "", (path, text) -> {
+            visitor.accept(path, text);
+            return text;
+        }, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Collect every text in a container by its path.
+     *
+     * @param container the language container
+     * @return texts by path, in walk order
+     */
+    public static Map<String, Text> collect(Object container) {
+        var texts = new LinkedHashMap<String, Text>();
+        walk(container, texts::put);
+        return texts;
+    }
+
+    /**
+     * Update every text of a container in place with the content of the text at the same path in another container.
+     * <p>Holders of the texts of <code>target</code> see the new content on their next render,
+     * texts of <code>target</code> without a counterpart in <code>source</code> are kept as they are.</p>
+     *
+     * @param target container whose texts are updated
+     * @param source container providing the new content
+     * @return number of texts updated
+     */
+    public static int rebind(Object target, Object source) {
+        var sourceTexts = collect(source);
+        var updated = new int[1];
+        walk(target, (path, text) -> {
+            var sourceText = sourceTexts.get(path);
+            if (sourceText != null && sourceText != text) {
+                text.rebind(sourceText);
+                updated[0]++;
+            }
+        });
+        return updated[0];
+    }
+
+    /**
+     * Carry the text instances of a previously loaded container over to a newly loaded one.
+     * <p>Every text of <code>target</code> at a path where <code>source</code> has a text is replaced by that text,
+     * after it's updated in place with the content of the replaced one. Holders of the texts of <code>source</code>
+     * see the new content, and keep doing so across further reloads since <code>target</code> now holds the same instances.
+     * Texts at new paths of <code>target</code> are kept as they are.</p>
+     * <p>A slot that cannot be written, like a record component or an element of an immutable collection,
+     * keeps the text of <code>target</code>, the text of <code>source</code> is still updated with its content.</p>
+     *
+     * @param target newly loaded container, whose texts are replaced
+     * @param source previously loaded container, whose texts are updated in place
+     * @return number of texts of <code>source</code> updated
+     */
+    public static int adopt(Object target, Object source) {
+        var sourceTexts = collect(source);
+        var updated = new int[1];
+        walk(target, "", (path, text) -> {
+            var sourceText = sourceTexts.get(path);
+            if (sourceText == null || sourceText == text) {
+                return text;
+            }
+            sourceText.rebind(text);
+            updated[0]++;
+            return sourceText;
+        }, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return updated[0];
+    }
+
+    /**
+     * Compile every line of every text in a container now, in parallel chunks on the given pool.
+     * <p>Texts loaded lazily compile their lines on first use, this moves the work of a large container
+     * to load time and spreads it over the cores of the pool. Lines already compiled are skipped.</p>
+     *
+     * @param container the language container
+     * @param pool      pool to compile on, or null to compile on the calling thread
+     * @return number of lines of the container
+     */
+    public static int compile(Object container, ForkJoinPool pool) {
+        var lines = new ArrayList<TextLine>();
+        walk(container, (path, text) -> lines.addAll(text.lines()));
+        var array = lines.toArray(TextLine[]::new);
+        if (pool == null || array.length <= COMPILE_BATCH_SIZE) {
+            compileRange(array, 0, array.length);
+        } else {
+            pool.invoke(new CompileAction(array, 0, array.length));
+        }
+        return array.length;
+    }
+
+    private static void compileRange(TextLine[] lines, int from, int to) {
+        for (int i = from; i < to; i++) {
+            lines[i].compile();
+        }
+    }
+
+    /**
+     * @return the value to be written back to the slot of the value, the value itself if it's unchanged
+     */
+    @SuppressWarnings("unchecked")
+    private static Object walk(Object value, String path, TextVisitor visitor, Set<Object> visited) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Text text) {
+            return visitor.visit(path, text);
+        }
+        if (isLeaf(value.getClass()) || !visited.add(value)) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            for (var entry : map.entrySet()) {
+                var replacement = walk(entry.getValue(), child(path, String.valueOf(entry.getKey())), visitor, visited);
+                if (replacement != entry.getValue()) {
+                    trySet(() -> ((Map.Entry<Object, Object>) entry).setValue(replacement));
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            var iterator = ((List<Object>) list).listIterator();
+            while (iterator.hasNext()) {
+                var element = iterator.next();
+                var replacement = walk(element, child(path, Integer.toString(iterator.previousIndex())), visitor, visited);
+                if (replacement != element) {
+                    trySet(() -> iterator.set(replacement));
+                }
+            }
+        } else if (value instanceof Iterable<?> iterable) {
+            // elements of other collections have no slot to write back to
+            var index = 0;
+            for (var element : iterable) {
+                walk(element, child(path, Integer.toString(index++)), visitor, visited);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                var element = Array.get(value, i);
+                var replacement = walk(element, child(path, Integer.toString(i)), visitor, visited);
+                if (replacement != element) {
+                    var index = i;
+                    trySet(() -> Array.set(value, index, replacement));
+                }
+            }
+        } else {
+            for (var type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (var field : type.getDeclaredFields()) {
+                    if (isSerialized(field) && trySetAccessible(field)) {
+                        var element = get(field, value);
+                        var replacement = walk(element, child(path, nameOf(field)), visitor, visited);
+                        if (replacement != element) {
+                            trySet(() -> field.set(value, replacement));
+                        }
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    private static void trySet(Setter setter) {
+        try {
+            setter.set();
+        } catch (IllegalAccessException | RuntimeException e) {
+            // an unmodifiable slot keeps its value
+        }
+    }
+
+    private static boolean isLeaf(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class
+                || (type.getPackageName().startsWith("java.") && !Map.class.isAssignableFrom(type) && !Iterable.class.isAssignableFrom(type));
+    }
+
+    private static boolean isSerialized(Field field) {
+        var modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic();
+    }
+
+    private static boolean trySetAccessible(Field field) {
+        try {
+            return field.trySetAccessible();
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    private static Object get(Field field, Object owner) {
+        try {
+            return field.get(owner);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String nameOf(Field field) {
+        var serializedName = field.getAnnotation(SerializedName.class);
+        return serializedName != null ? serializedName.value() : field.getName();
+    }
+
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+
+    @FunctionalInterface
+    private interface TextVisitor {
+        /**
+         * @return the text to be written back to the slot of the visited text
+         */
+        Text visit(String path, Text text);
+    }
+
+    @FunctionalInterface
+    private interface Setter {
+        void set() throws IllegalAccessException;
+    }
+
+    private static final class CompileAction extends RecursiveAction {
+        private final TextLine[] lines;
+        private final int from;
+        private final int to;
+
+        private CompileAction(TextLine[] lines, int from, int to) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= COMPILE_BATCH_SIZE) {
+                compileRange(lines, from, to);
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new CompileAction(lines, from, middle), new CompileAction(lines, middle, to));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package land.melon.lab.simplelanguageloader.metrics;
+
+import land.melon.lab.simplelanguageloader.components.RenderCache;
+import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.utils.LruCache;
+import land.melon.lab.simplelanguageloader.utils.WeakIdentityMap;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics kept in memory, exported as a plain map by {@link #snapshot()}.
+ * <p>Load time and text counts are kept per file, render counts, latency histograms and unresolved placeholders
+ * per text. Texts are named by {@link Instrumentation#nameOf(Text)}, texts not loaded from a file by their content.
+ * Hit rates of caches registered by {@link #registerCache(String, RenderCache)} are included in the snapshots.</p>
+ * <p>For example:</p>
+ * <pre>
+ *     var metrics = new InMemoryMetrics();
+ *     Instrumentation.install(metrics);
+ *     ...
+ *     metrics.snapshot().forEach((section, values) -&gt; logger.info(section + ": " + values));
+ * </pre>
+ */
+public final class InMemoryMetrics implements LanguageMetrics {
+    /**
+     * upper bounds of the latency histogram buckets in nanoseconds, the last bucket takes everything above
+     */
+    private static final long[] bucketBounds = {1_000, 4_000, 16_000, 64_000, 256_000, 1_000_000, 4_000_000};
+    private static final String[] bucketNames = {"<=1us", "<=4us", "<=16us", "<=64us", "<=256us", "<=1ms", "<=4ms", ">4ms"};
+    private static final int MAX_CONTENT_NAME_LENGTH = 48;
+
+    private final Map<String, FileStats> files = new ConcurrentHashMap<>();
+    /**
+     * stats of every rendered text, a lock-free lookup on the render path
+     */
+    private final WeakIdentityMap<Text, RenderStats> renders = new WeakIdentityMap<>();
+    private final Map<String, LongSupplier[]> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public void fileLoaded(File file, Object container, long nanos, int texts, int lines) {
+        var stats = files.computeIfAbsent(file.getPath(), path -> new FileStats());
+        synchronized (stats) {
+            stats.loads++;
+            stats.totalNanos += nanos;
+            stats.lastNanos = nanos;
+            stats.texts = texts;
+            stats.lines = lines;
+        }
+    }
+
+    @Override
+    public void rendered(Text text, long nanos, int unresolved) {
+        var stats = renders.computeIfAbsent(text, key -> new RenderStats());
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        if (unresolved != 0) {
+            stats.unresolved.add(unresolved);
+        }
+        var bucket = 0;
+        while (bucket < bucketBounds.length && nanos > bucketBounds[bucket]) {
+            bucket++;
+        }
+        stats.histogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Include the hit rate of a render cache in the snapshots.
+     *
+     * @param name  name of the cache in the snapshots
+     * @param cache the cache
+     */
+    public void registerCache(String name, RenderCache cache) {
+        caches.put(name, new LongSupplier[]{cache::hits, cache::misses});
+    }
+
+    /**
+     * Include the hit rate of a cache in the snapshots.
+     *
+     * @param name  name of the cache in the snapshots
+     * @param cache the cache
+     */
+    public void registerCache(String name, LruCache<?, ?> cache) {
+        caches.put(name, new LongSupplier[]{cache::hits, cache::misses});
+    }
+
+    /**
+     * Take a snapshot of the metrics.
+     * <p>The snapshot has three sections: <code>files</code> by path, <code>renders</code> by text name,
+     * sorted by total render time descending, and <code>caches</code> by name.</p>
+     *
+     * @return the snapshot, made of maps, numbers and strings only
+     */
+    public Map<String, Object> snapshot() {
+        var fileSnapshot = new TreeMap<String, Object>();
+        files.forEach((path, stats) -> {
+            synchronized (stats) {
+                fileSnapshot.put(path, Map.of(
+                        "loads", stats.loads,
+                        "totalNanos", stats.totalNanos,
+                        "lastNanos", stats.lastNanos,
+                        "texts", stats.texts,
+                        "lines", stats.lines));
+            }
+        });
+
+        var renderEntries = new ArrayList<Map.Entry<Text, RenderStats>>();
+        renders.forEach((text, stats) -> renderEntries.add(Map.entry(text, stats)));
+        renderEntries.sort(Comparator.comparingLong((Map.Entry<Text, RenderStats> entry) -> entry.getValue().totalNanos.sum()).reversed());
+        var renderSnapshot = new LinkedHashMap<String, Object>();
+        for (var entry : renderEntries) {
+            var stats = entry.getValue();
+            var histogram = new LinkedHashMap<String, Long>();
+            for (int i = 0; i < bucketNames.length; i++) {
+                histogram.put(bucketNames[i], stats.histogram.get(i));
+            }
+            var count = stats.count.sum();
+            var totalNanos = stats.totalNanos.sum();
+            renderSnapshot.merge(nameOf(entry.getKey()), Map.of(
+                    "count", count,
+                    "totalNanos", totalNanos,
+                    "averageNanos", count == 0 ? 0 : totalNanos / count,
+                    "unresolved", stats.unresolved.sum(),
+                    "histogram", histogram), (first, second) -> first);
+        }
+
+        var cacheSnapshot = new TreeMap<String, Object>();
+        caches.forEach((name, counters) -> {
+            var hits = counters[0].getAsLong();
+            var misses = counters[1].getAsLong();
+            cacheSnapshot.put(name, Map.of(
+                    "hits", hits,
+                    "misses", misses,
+                    "hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses)));
+        });
+
+        var snapshot = new LinkedHashMap<String, Object>();
+        snapshot.put("files", fileSnapshot);
+        snapshot.put("renders", renderSnapshot);
+        snapshot.put("caches", cacheSnapshot);
+        return snapshot;
+    }
+
+    /**
+     * Clear all recorded metrics, registered caches are kept.
+     */
+    public void reset() {
+        files.clear();
+        renders.clear();
+    }
+
+    private static String nameOf(Text text) {
+        var name = Instrumentation.nameOf(text);
+        if (name != null) {
+            return name;
+        }
+        var content = text.original();
+        return content.length() <= MAX_CONTENT_NAME_LENGTH ? "\"" + content + "\"" : "\"" + content.substring(0, MAX_CONTENT_NAME_LENGTH) + "...\"";
+    }
+
+    private static final class FileStats {
+        private long loads;
+        private long totalNanos;
+        private long lastNanos;
+        private int texts;
+        private int lines;
+    }
+
+    private static final class RenderStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder unresolved = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(bucketNames.length);
+    }
+}
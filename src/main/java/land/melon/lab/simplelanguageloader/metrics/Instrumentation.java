@@ -0,0 +1,78 @@
+package land.melon.lab.simplelanguageloader.metrics;
+
+import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.components.TextWalker;
+import land.melon.lab.simplelanguageloader.utils.WeakIdentityMap;
+
+import java.io.File;
+
+/**
+ * Holds the installed {@link LanguageMetrics}, which is {@link LanguageMetrics#NOOP} until another one is installed.
+ * <p>While the no-op metrics is installed, the hot paths check {@link #enabled()} and skip measuring altogether.</p>
+ */
+public final class Instrumentation {
+    private static volatile LanguageMetrics metrics = LanguageMetrics.NOOP;
+    /**
+     * names of loaded texts, <code>file:path</code>, weakly held so reloaded containers are not kept alive,
+     * looked up without locking on the render path
+     */
+    private static final WeakIdentityMap<Text, String> names = new WeakIdentityMap<>();
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Install the metrics receiving measurements from now on.
+     *
+     * @param metrics the metrics, or {@link LanguageMetrics#NOOP} to stop measuring
+     */
+    public static void install(LanguageMetrics metrics) {
+        Instrumentation.metrics = metrics;
+    }
+
+    /**
+     * @return the installed metrics
+     */
+    public static LanguageMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return true if metrics other than {@link LanguageMetrics#NOOP} are installed
+     */
+    public static boolean enabled() {
+        return metrics != LanguageMetrics.NOOP;
+    }
+
+    /**
+     * Get the name of a text loaded while metrics were enabled.
+     *
+     * @param text the text
+     * @return the file name and the dot separated path of the text in it, like <code>en_us.json:shop.purchase</code>,
+     * or null if the text was not loaded from a file
+     */
+    public static String nameOf(Text text) {
+        return names.get(text);
+    }
+
+    /**
+     * Report a loaded file to the installed metrics, counting and naming its texts.
+     *
+     * @param file      the loaded file
+     * @param container the loaded object
+     * @param nanos     time spent loading
+     */
+    public static void loaded(File file, Object container, long nanos) {
+        var current = metrics;
+        if (current == LanguageMetrics.NOOP) {
+            return;
+        }
+        var counts = new int[2];
+        TextWalker.walk(container, (path, text) -> {
+            names.put(text, file.getName() + ":" + path);
+            counts[0]++;
+            counts[1] += text.originalAsList().size();
+        });
+        current.fileLoaded(file, container, nanos, counts[0], counts[1]);
+    }
+}
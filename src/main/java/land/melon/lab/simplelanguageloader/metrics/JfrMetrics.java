@@ -0,0 +1,67 @@
+package land.melon.lab.simplelanguageloader.metrics;
+
+import jdk.jfr.*;
+import land.melon.lab.simplelanguageloader.components.Text;
+
+import java.io.File;
+
+/**
+ * Metrics recorded as Java Flight Recorder events, to be analyzed with JDK Mission Control or <code>jfr print</code>.
+ * <p>A <code>land.melon.lab.simplelanguageloader.FileLoad</code> event is committed for every loaded file and a
+ * <code>land.melon.lab.simplelanguageloader.TextRender</code> event for every render,
+ * the render events are disabled by default and only cost a check unless enabled in the recording settings.</p>
+ */
+public final class JfrMetrics implements LanguageMetrics {
+    @Override
+    public void fileLoaded(File file, Object container, long nanos, int texts, int lines) {
+        var event = new FileLoadEvent();
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.nanos = nanos;
+            event.texts = texts;
+            event.lines = lines;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void rendered(Text text, long nanos, int unresolved) {
+        var event = new TextRenderEvent();
+        if (event.shouldCommit()) {
+            var name = Instrumentation.nameOf(text);
+            event.text = name != null ? name : text.original();
+            event.nanos = nanos;
+            event.unresolved = unresolved;
+            event.commit();
+        }
+    }
+
+    @Name("land.melon.lab.simplelanguageloader.FileLoad")
+    @Label("Language File Load")
+    @Category("SimpleLanguageLoader")
+    static final class FileLoadEvent extends Event {
+        @Label("Path")
+        String path;
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+        @Label("Texts")
+        int texts;
+        @Label("Lines")
+        int lines;
+    }
+
+    @Name("land.melon.lab.simplelanguageloader.TextRender")
+    @Label("Text Render")
+    @Category("SimpleLanguageLoader")
+    @Enabled(false)
+    static final class TextRenderEvent extends Event {
+        @Label("Text")
+        String text;
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+        @Label("Unresolved Placeholders")
+        int unresolved;
+    }
+}
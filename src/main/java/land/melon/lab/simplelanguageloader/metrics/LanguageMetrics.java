@@ -0,0 +1,43 @@
+package land.melon.lab.simplelanguageloader.metrics;
+
+import land.melon.lab.simplelanguageloader.components.Text;
+
+import java.io.File;
+
+/**
+ * Receives measurements of the load and render hot paths, install an implementation with {@link Instrumentation#install(LanguageMetrics)}.
+ * <p>Every method does nothing by default, and nothing is measured at all while {@link #NOOP} is installed.
+ * Implementations are called from any thread that loads or renders, so they must be thread safe and cheap.</p>
+ *
+ * @see InMemoryMetrics
+ * @see JfrMetrics
+ */
+public interface LanguageMetrics {
+    /**
+     * The default metrics, which records nothing.
+     */
+    LanguageMetrics NOOP = new LanguageMetrics() {
+    };
+
+    /**
+     * Called after a language file is loaded.
+     *
+     * @param file      the loaded file
+     * @param container the loaded object, null if the file was empty
+     * @param nanos     time spent reading and parsing the file
+     * @param texts     number of texts in the loaded object
+     * @param lines     number of lines of those texts
+     */
+    default void fileLoaded(File file, Object container, long nanos, int texts, int lines) {
+    }
+
+    /**
+     * Called after a text is rendered by one of its <code>produce</code> methods.
+     *
+     * @param text       the rendered text
+     * @param nanos      time spent rendering
+     * @param unresolved number of placeholders left without a value
+     */
+    default void rendered(Text text, long nanos, int unresolved) {
+    }
+}
@@ -1,11 +1,11 @@
 package land.melon.lab.simplelanguageloader.utils;
 
 
-import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
  * Used to process color codes.
+ * <p>All conversions are a single scan over the text into one pre-sized buffer, no regex is involved.</p>
  */
 public final class ColorConverter {
     /**
@@ -13,6 +13,17 @@ public final class ColorConverter {
      */
     public static final Pattern hexColorPattern = Pattern.compile("&#[0-9A-Fa-f]{6}");
 
+    private static final char convenientPrefix = '&';
+    private static final char sectionSign = '§';
+    /**
+     * length of <code>&amp;#RRGGBB</code>
+     */
+    private static final int hexCodeLength = 8;
+    /**
+     * length of <code>&amp;x&amp;R&amp;R&amp;G&amp;G&amp;B&amp;B</code>
+     */
+    private static final int expandedHexCodeLength = 14;
+
     private ColorConverter() {
     }
 
@@ -23,35 +34,129 @@ public final class ColorConverter {
      * @return text with expanded color code
      */
     public static String convertConvenientColorCode(String text) {
-        var textParts = hexColorPattern.split(text);
-        if (textParts.length == 0)
-            textParts = new String[]{"", ""};
-        var colorCodes = hexColorPattern.matcher(text).results().map(MatchResult::group).toArray(String[]::new);
-        var textBuilder = new StringBuilder(textParts[0]);
-        for (int i = 0; i < colorCodes.length; i++) {
-            textBuilder.append(convertToTraditionalColorCode(colorCodes[i])).append(textParts[i + 1]);
+        if (text.indexOf(convenientPrefix) < 0) {
+            return text;
         }
-        return textBuilder.toString();
+        var buffer = new char[maxExpandedLength(text)];
+        var length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == convenientPrefix && isHexColorCode(text, i)) {
+                length = writeExpandedHexColorCode(text, i, buffer, length, convenientPrefix);
+                i += hexCodeLength - 1;
+            } else {
+                buffer[length++] = c;
+            }
+        }
+        return new String(buffer, 0, length);
     }
 
     /**
-     * Expand color code looks like <code>&amp;#RRGGBB</code> to <code>&amp;x&amp;R&amp;R&amp;G&amp;G&amp;B&amp;B</code>.
+     * Expand the convenient RGB color codes and translate <code>&amp;</code> to section sign in a single scan.
+     * <p>Equals to a pair of {@link #convertConvenientColorCode(String)} and
+     * {@link #translateToLegacyColorText(String, char)} with <code>&amp;</code> as the color prefix.</p>
      *
-     * @param x convenient color code
-     * @return expanded color code
+     * @param text text to be proceeded
+     * @return the expanded text as key and the legacy colored text as value, the given instance for forms equal to it
      */
-    private static String convertToTraditionalColorCode(String x) {
-        var hexColorCode = x.substring(2);
-        var colorCodeBuilder = new StringBuilder("&x");
-        hexColorCode.chars().forEach(c -> colorCodeBuilder.append("&").append((char) c));
-        return colorCodeBuilder.toString();
+    public static Pair<String, String> convertColorCodes(String text) {
+        if (text.indexOf(convenientPrefix) < 0) {
+            return Pair.of(text, text);
+        }
+        var maxLength = maxExpandedLength(text);
+        var expanded = new char[maxLength];
+        var colored = new char[maxLength];
+        var length = 0;
+        var hasHexColorCode = false;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == convenientPrefix && isHexColorCode(text, i)) {
+                writeExpandedHexColorCode(text, i, expanded, length, convenientPrefix);
+                length = writeExpandedHexColorCode(text, i, colored, length, sectionSign);
+                i += hexCodeLength - 1;
+                hasHexColorCode = true;
+            } else {
+                expanded[length] = c;
+                colored[length++] = c == convenientPrefix ? sectionSign : c;
+            }
+        }
+        // without hex color codes the expanded text equals the text, so share it instead of keeping a copy
+        return Pair.of(hasHexColorCode ? new String(expanded, 0, length) : text, new String(colored, 0, length));
     }
 
+    /**
+     * Replace the color prefix with section sign.
+     *
+     * @param text        text to be proceeded
+     * @param colorPrefix the color prefix
+     * @return text with legacy color code
+     */
     public static String convertToLegacyColorCode(String text, char colorPrefix) {
-        return text.replace(colorPrefix, '§').replace("" + colorPrefix + colorPrefix, "§");
+        return text.replace(colorPrefix, sectionSign);
     }
 
+    /**
+     * Expand the convenient RGB color codes and replace the color prefix with section sign in a single scan.
+     *
+     * @param text        text to be proceeded
+     * @param colorPrefix the color prefix
+     * @return text with legacy color code
+     */
     public static String translateToLegacyColorText(String text, char colorPrefix) {
-        return convertToLegacyColorCode(convertConvenientColorCode(text), colorPrefix);
+        if (text.indexOf(convenientPrefix) < 0 && text.indexOf(colorPrefix) < 0) {
+            return text;
+        }
+        // expanded codes use the convenient prefix, so they only become section signs when it is the color prefix
+        var expandedPrefix = colorPrefix == convenientPrefix ? sectionSign : convenientPrefix;
+        var buffer = new char[maxExpandedLength(text)];
+        var length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == convenientPrefix && isHexColorCode(text, i)) {
+                length = writeExpandedHexColorCode(text, i, buffer, length, expandedPrefix);
+                i += hexCodeLength - 1;
+            } else {
+                buffer[length++] = c == colorPrefix ? sectionSign : c;
+            }
+        }
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * @return true if a color code looks like <code>&amp;#RRGGBB</code> starts at the index
+     */
+    private static boolean isHexColorCode(String text, int index) {
+        if (index + hexCodeLength > text.length() || text.charAt(index + 1) != '#') {
+            return false;
+        }
+        for (int i = index + 2; i < index + hexCodeLength; i++) {
+            var c = text.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expand color code looks like <code>&amp;#RRGGBB</code> to <code>&amp;x&amp;R&amp;R&amp;G&amp;G&amp;B&amp;B</code>.
+     *
+     * @return the new length of the buffer
+     */
+    private static int writeExpandedHexColorCode(String text, int index, char[] buffer, int length, char prefix) {
+        buffer[length++] = prefix;
+        buffer[length++] = 'x';
+        for (int i = index + 2; i < index + hexCodeLength; i++) {
+            buffer[length++] = prefix;
+            buffer[length++] = text.charAt(i);
+        }
+        return length;
+    }
+
+    /**
+     * @return the upper bound of the text length after expanding all hex color codes
+     */
+    private static int maxExpandedLength(String text) {
+        return text.length() + text.length() / hexCodeLength * (expandedHexCodeLength - hexCodeLength);
     }
-}
\ No newline at end of file
+}
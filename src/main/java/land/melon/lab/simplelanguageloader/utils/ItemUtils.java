@@ -3,11 +3,19 @@ package land.melon.lab.simplelanguageloader.utils;
 import net.kyori.adventure.text.Component;
 import org.bukkit.inventory.ItemStack;
 
+/**
+ * Item components with hover events are cached by material, amount and item meta, see {@link LocaleUtils}.
+ */
 public class ItemUtils {
+    private static final int ITEM_CACHE_SIZE = 1024;
+    private static final LruCache<LocaleUtils.ItemKey, Component> itemHoverComponents = new LruCache<>(ITEM_CACHE_SIZE);
 
     public static Component itemTextWithHover(ItemStack itemStack) {
-        var itemComponent = LocaleUtils.getTranslatableItemComponent(itemStack);
-        return itemComponent.hoverEvent(itemStack);
+        var key = LocaleUtils.itemKey(itemStack, true);
+        return itemHoverComponents.get(key, absent -> {
+            var itemComponent = LocaleUtils.getTranslatableItemComponent(itemStack, absent);
+            return itemComponent.hoverEvent(itemStack);
+        });
     }
 
 }
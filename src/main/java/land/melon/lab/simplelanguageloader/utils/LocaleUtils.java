@@ -6,12 +6,17 @@ import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 
 /**
  * From: <a href="https://github.com/NyaaCat/NyaaCore/blob/1.18/src/main/java/cat/nyaa/nyaacore/utils/LocaleUtils.java">cat.nyaa.nyaacore.utils.LocaleUtils.java</a>
+ * <p>Item name components are cached by material and item meta, the meta of an item is read once per call.</p>
  */
 public class LocaleUtils {
+    private static final int ITEM_CACHE_SIZE = 1024;
+    private static final LruCache<ItemKey, Component> itemComponents = new LruCache<>(ITEM_CACHE_SIZE);
+
     public static String getUnlocalizedName(Material material) {
 //        if (material == null) throw new IllegalArgumentException();
 //        return namespaceKeyToTranslationKey(material.isBlock() ? "block" : "item", material.getKey());
@@ -19,16 +24,51 @@ public class LocaleUtils {
     }
 
     public static Component getTranslatableItemComponent(ItemStack itemStack) {
-        if (itemStack.hasItemMeta() && itemStack.getItemMeta().hasDisplayName())
-            return Component.text().style(Style.style(TextDecoration.ITALIC)).append(itemStack.getItemMeta().displayName()).asComponent();
-        if (itemStack.getItemMeta() instanceof SkullMeta && ((SkullMeta) itemStack.getItemMeta()).hasOwner()) {
+        return getTranslatableItemComponent(itemStack, itemKey(itemStack, false));
+    }
+
+    /**
+     * Get the name component of an item whose meta was read already.
+     *
+     * @param itemStack the item
+     * @param key       the key of the item, its amount is ignored
+     * @return the cached name component
+     */
+    static Component getTranslatableItemComponent(ItemStack itemStack, ItemKey key) {
+        var nameKey = key.amount() == 0 ? key : new ItemKey(key.material(), 0, key.meta());
+        return itemComponents.get(nameKey, absent -> createTranslatableItemComponent(itemStack, absent.meta()));
+    }
+
+    private static Component createTranslatableItemComponent(ItemStack itemStack, ItemMeta meta) {
+        if (meta != null && meta.hasDisplayName())
+            return Component.text().style(Style.style(TextDecoration.ITALIC)).append(meta.displayName()).asComponent();
+        if (meta instanceof SkullMeta skullMeta && skullMeta.hasOwner()) {
             String key = getUnlocalizedName(itemStack.getType()) + ".named";
-            return Component.translatable(key, (String) null, Component.text(((SkullMeta) itemStack.getItemMeta()).getOwningPlayer().getName()));
+            return Component.translatable(key, (String) null, Component.text(skullMeta.getOwningPlayer().getName()));
         }
         return Component.translatable(itemStack.translationKey());
     }
 
+    /**
+     * Identify an item by its material and meta, reading the meta once, and only if the item has one.
+     * <p>The meta is a copy owned by the key, so later changes to the item don't affect cached entries.</p>
+     *
+     * @param itemStack  the item
+     * @param withAmount whether the amount is part of the key, as it is for hover events
+     * @return the key of the item
+     */
+    static ItemKey itemKey(ItemStack itemStack, boolean withAmount) {
+        return new ItemKey(itemStack.getType(), withAmount ? itemStack.getAmount() : 0,
+                itemStack.hasItemMeta() ? itemStack.getItemMeta() : null);
+    }
+
     public static String namespaceKeyToTranslationKey(String category, NamespacedKey namespacedKey) {
         return category + "." + namespacedKey.getNamespace() + "." + namespacedKey.getKey();
     }
+
+    /**
+     * Cache key of an item, the meta is null for an item without one.
+     */
+    record ItemKey(Material material, int amount, ItemMeta meta) {
+    }
 }
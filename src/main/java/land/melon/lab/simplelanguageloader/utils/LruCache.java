@@ -0,0 +1,148 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe, size-bounded cache which evicts the least recently used entries.
+ * <p>Entries are spread over independently locked segments by the hash of their key, so threads working on
+ * different keys rarely contend. Every segment keeps its own least recently used order and an equal share
+ * of the maximum size.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class LruCache<K, V> {
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache holding at most the given number of entries.
+     *
+     * @param maximumSize the maximum number of entries, at least 1
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be at least 1, got " + maximumSize);
+        }
+        // a power of two not above the cpu count nor the maximum size, each segment holds at least 16 entries if possible
+        var segmentCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), maximumSize / 16)));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Get the value of a key, computing and caching it on a miss.
+     * <p>The value is computed outside the lock, so concurrent misses of the same key may compute it more than once.</p>
+     *
+     * @param key    the key
+     * @param loader computes the value of a missing key, must not return null
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        var segment = segmentOf(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loader.apply(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Get the value of a key if it's cached, hits and misses are not counted.
+     *
+     * @param key the key
+     * @return the cached value, or null
+     */
+    public V getIfPresent(K key) {
+        var segment = segmentOf(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * Cache a value.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        var segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Remove all entries, the hit and miss counters are kept.
+     */
+    public void clear() {
+        for (var segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        var size = 0;
+        for (var segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of lookups by {@link #get(Object, Function)} found in the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups by {@link #get(Object, Function)} not found in the cache
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    private Segment<K, V> segmentOf(K key) {
+        var hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
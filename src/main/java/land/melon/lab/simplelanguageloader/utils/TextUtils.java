@@ -1,11 +1,41 @@
 package land.melon.lab.simplelanguageloader.utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class TextUtils {
+    private static final Pattern placeholderPattern = Pattern.compile("\\{(.*?)}");
+
+    private static final char convenientPrefix = '&';
+    private static final char sectionSign = '§';
+    /**
+     * advance in pixels of a character of the default font, including the 1 pixel gap to the next character
+     */
+    private static final int DEFAULT_CHARACTER_WIDTH = 6;
+    /**
+     * advance in pixels of characters outside the ascii range, which are rendered by the unicode font
+     */
+    private static final int WIDE_CHARACTER_WIDTH = 9;
+    private static final byte[] asciiWidths = new byte[128];
+
+    static {
+        Arrays.fill(asciiWidths, (byte) DEFAULT_CHARACTER_WIDTH);
+        setWidth(2, "!',.:;i|");
+        setWidth(3, "`l");
+        setWidth(4, " \"()*I[]t{}");
+        setWidth(5, "<>fk");
+        setWidth(7, "@~");
+    }
+
+    private static void setWidth(int width, String characters) {
+        for (int i = 0; i < characters.length(); i++) {
+            asciiWidths[characters.charAt(i)] = (byte) width;
+        }
+    }
+
     /**
      * Counts the number of words in a string, except for color symbols that look like "&amp;7" and "&amp;#66ccff", '&amp;' is a color prefix and can be customized.
      *
@@ -15,20 +45,169 @@ public class TextUtils {
      */
     public static int countWord(String text, char colorPrefix) {
         int count = 0;
-        var convenientColorCodePattern = Pattern.compile(colorPrefix + "#[0-9A-Fa-f]{6}");
-        var legacyColorCodePattern = Pattern.compile(colorPrefix + "[0-9A-Fa-fLlMmNnOoRrXxKk]");
-        for (String noConvenient : convenientColorCodePattern.split(text)) {
-            for (String noColor : legacyColorCodePattern.split(noConvenient)) {
-                count += noColor.length();
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == colorPrefix) {
+                var codeLength = colorCodeLength(text, i);
+                if (codeLength > 0) {
+                    i += codeLength - 1;
+                    continue;
+                }
             }
+            count++;
         }
         return count;
     }
 
+    /**
+     * Count the characters of a string shown in game in a single scan.
+     * <p>Color and format codes with either <code>&amp;</code> or <code>§</code> as prefix are skipped, including
+     * <code>&amp;#RRGGBB</code> and the expanded <code>&amp;x&amp;R&amp;R&amp;G&amp;G&amp;B&amp;B</code> form,
+     * and so are placeholders like <code>{player}</code> or plural placeholders with nested braces, whose values are not
+     * known yet, see {@link #placeholderEnd(String, int)}.</p>
+     *
+     * @param text text to measure
+     * @return number of visible characters
+     */
+    public static int visibleLength(String text) {
+        return (int) (measure(text) >>> 32);
+    }
+
+    /**
+     * Measure the width of a string in pixels with the default Minecraft font in a single scan.
+     * <p>Codes and placeholders are skipped like {@link #visibleLength(String)} does,
+     * bold characters are one pixel wider. Characters outside the ascii range are estimated as unicode font characters.</p>
+     *
+     * @param text text to measure
+     * @return width in pixels, including the gap after the last character
+     */
+    public static int pixelWidth(String text) {
+        return (int) measure(text);
+    }
+
+    /**
+     * Get the width of a character in pixels with the default Minecraft font.
+     *
+     * @param character the character
+     * @param bold      whether the character is bold
+     * @return width in pixels, including the gap to the next character
+     */
+    public static int pixelWidth(char character, boolean bold) {
+        var width = character < asciiWidths.length ? asciiWidths[character] : WIDE_CHARACTER_WIDTH;
+        return bold && character != ' ' ? width + 1 : width;
+    }
+
+    /**
+     * @return the visible length in the high and the pixel width in the low 32 bits
+     */
+    private static long measure(String text) {
+        var visibleLength = 0;
+        var width = 0;
+        var bold = false;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == convenientPrefix || c == sectionSign) {
+                var codeLength = colorCodeLength(text, i);
+                if (codeLength > 0) {
+                    var code = Character.toLowerCase(text.charAt(i + 1));
+                    // a color code or reset ends the bold format
+                    bold = code == 'l' || (bold && code >= 'k' && code <= 'o');
+                    i += codeLength - 1;
+                    continue;
+                }
+            } else if (c == '{') {
+                var close = placeholderEnd(text, i);
+                if (close > 0) {
+                    i = close;
+                    continue;
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i++;
+            }
+            visibleLength++;
+            width += pixelWidth(c, bold);
+        }
+        return ((long) visibleLength << 32) | width;
+    }
+
+    /**
+     * @return the length of the color or format code starting at the prefix at the index, or 0 if there is none
+     */
+    private static int colorCodeLength(String text, int index) {
+        if (index + 1 >= text.length()) {
+            return 0;
+        }
+        var code = text.charAt(index + 1);
+        if (code == '#') {
+            if (index + 8 > text.length()) {
+                return 0;
+            }
+            for (int i = index + 2; i < index + 8; i++) {
+                if (!isHexDigit(text.charAt(i))) {
+                    return 0;
+                }
+            }
+            return 8;
+        }
+        code = Character.toLowerCase(code);
+        return isHexDigit(code) || (code >= 'k' && code <= 'o') || code == 'r' || code == 'x' ? 2 : 0;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Find the closing brace of the placeholder opened at an index.
+     * <p>A placeholder is the innermost pair of braces, like <code>{player}</code>, except for a plural placeholder
+     * like <code>{count,plural,one{# coin}other{# coins}}</code>, whose nested braces are matched by depth.</p>
+     *
+     * @param text text containing the placeholder
+     * @param open index of the opening brace
+     * @return the index of the closing brace, or -1 if the brace is literal
+     */
+    public static int placeholderEnd(String text, int open) {
+        var close = text.indexOf('}', open + 1);
+        if (close < 0) {
+            return -1;
+        }
+        var nextOpen = text.indexOf('{', open + 1);
+        if (nextOpen < 0 || nextOpen > close) {
+            return close;
+        }
+        return isPluralStart(text, open, nextOpen) ? matchingBrace(text, open) : -1;
+    }
+
+    /**
+     * @return true if the text between the brace and the next opening brace looks like <code>key,plural,</code>
+     */
+    private static boolean isPluralStart(String text, int open, int nextOpen) {
+        var keyEnd = text.indexOf(',', open + 1);
+        if (keyEnd <= open + 1 || keyEnd > nextOpen) {
+            return false;
+        }
+        var typeEnd = text.indexOf(',', keyEnd + 1);
+        return typeEnd >= 0 && typeEnd < nextOpen && text.substring(keyEnd + 1, typeEnd).trim().equals("plural");
+    }
+
+    /**
+     * @return the index of the brace closing the one at the index, or -1 if it is never closed
+     */
+    private static int matchingBrace(String text, int open) {
+        var depth = 0;
+        for (int i = open; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public static List<String> extractPlaceholders(String message) {
         List<String> placeholders = new ArrayList<>();
-        Pattern pattern = Pattern.compile("\\{(.*?)}");
-        Matcher matcher = pattern.matcher(message);
+        Matcher matcher = placeholderPattern.matcher(message);
         while (matcher.find()) {
             placeholders.add(matcher.group(1));
         }
@@ -36,6 +215,6 @@ public class TextUtils {
     }
 
     public static String[] splitMessage(String message) {
-        return message.split("\\{.*?}");
+        return placeholderPattern.split(message);
     }
 }
@@ -0,0 +1,142 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map with weakly held keys compared by identity, which doesn't keep its keys alive.
+ * <p>An entry is dropped once its key is no longer referenced elsewhere. Unlike a synchronized
+ * {@link java.util.WeakHashMap}, lookups are lock-free reads of a {@link ConcurrentHashMap}, so it suits hot paths
+ * called from many threads. Entries of collected keys are expunged on the way.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class WeakIdentityMap<K, V> {
+    private final ConcurrentHashMap<Object, V> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> collected = new ReferenceQueue<>();
+
+    /**
+     * @param key the key
+     * @return the value of the key, or null if absent
+     */
+    public V get(K key) {
+        return entries.get(new Lookup(key));
+    }
+
+    /**
+     * Get the value of a key, creating it if absent.
+     *
+     * @param key     the key
+     * @param factory creates the value of an absent key
+     * @return the value of the key
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        var value = get(key);
+        if (value != null) {
+            return value;
+        }
+        expungeCollected();
+        return entries.computeIfAbsent(new WeakKey<>(key, collected), absent -> factory.apply(key));
+    }
+
+    /**
+     * Set the value of a key, replacing the previous one.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        expungeCollected();
+        entries.put(new WeakKey<>(key, collected), value);
+    }
+
+    /**
+     * Visit every entry whose key is still alive.
+     *
+     * @param visitor called with every key and value
+     */
+    public void forEach(BiConsumer<? super K, ? super V> visitor) {
+        entries.forEach((reference, value) -> {
+            @SuppressWarnings("unchecked")
+            var key = ((WeakKey<K>) reference).get();
+            if (key != null) {
+                visitor.accept(key, value);
+            }
+        });
+    }
+
+    /**
+     * Remove every entry.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of entries, including entries of keys collected but not yet expunged
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void expungeCollected() {
+        for (var reference = collected.poll(); reference != null; reference = collected.poll()) {
+            entries.remove(reference);
+        }
+    }
+
+    /**
+     * stored key, equal to a {@link Lookup} or another WeakKey of the same referent
+     */
+    private static final class WeakKey<K> extends WeakReference<K> {
+        private final int hash;
+
+        private WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            var key = get();
+            if (key == null) {
+                // a collected key only equals itself, so it can still be removed
+                return false;
+            }
+            return other instanceof WeakKey<?> weakKey ? weakKey.get() == key : other instanceof Lookup lookup && lookup.key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * probe key of a lookup, never stored
+     */
+    private static final class Lookup {
+        private final Object key;
+
+        private Lookup(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof WeakKey<?> weakKey && weakKey.get() == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe pool to share one instance of equal values, which doesn't keep values alive by itself.
+ * <p>An entry is dropped once its value is no longer referenced elsewhere, its key is held until then.
+ * Values should be immutable, since every user of a key shares them.</p>
+ * <p>The pool is backed by a {@link ConcurrentHashMap} of weak references to the values, a hit is a lock-free read,
+ * and threads pooling different keys at once don't contend. Entries of collected values are expunged on the way.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class WeakPool<K, V> {
+    private final ConcurrentHashMap<K, ValueReference<K, V>> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+    /**
+     * Get the pooled value of a key, creating and pooling it if absent.
+     *
+     * @param key     the key
+     * @param factory creates the value of an absent key
+     * @return the pooled value
+     */
+    public V intern(K key, Function<? super K, ? extends V> factory) {
+        expungeCollected();
+        var reference = entries.get(key);
+        var value = reference == null ? null : reference.get();
+        if (value != null) {
+            return value;
+        }
+        // only the bin of the key is locked while the value is created
+        @SuppressWarnings("unchecked")
+        var pooled = (V[]) new Object[1];
+        entries.compute(key, (absent, existing) -> {
+            var existingValue = existing == null ? null : existing.get();
+            if (existingValue != null) {
+                pooled[0] = existingValue;
+                return existing;
+            }
+            pooled[0] = factory.apply(absent);
+            return new ValueReference<>(absent, pooled[0], collected);
+        });
+        return pooled[0];
+    }
+
+    /**
+     * Get the pooled value of a key, pooling the given value if absent.
+     *
+     * @param key   the key
+     * @param value the value to be pooled if absent
+     * @return the pooled value, the given one if the key was absent
+     */
+    public V intern(K key, V value) {
+        return intern(key, absent -> value);
+    }
+
+    /**
+     * @return the number of pooled values, including values collected but not yet expunged
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeCollected() {
+        for (var reference = collected.poll(); reference != null; reference = collected.poll()) {
+            var entry = (ValueReference<K, V>) reference;
+            // a key pooled again since keeps its new value
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private static final class ValueReference<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private ValueReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package land.melon.lab.simplelanguageloader;
+
+import land.melon.lab.simplelanguageloader.components.Text;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reloads a registry while other threads look texts up and render them.
+ */
+class LanguageRegistryReloadTest {
+    private static final int READERS = 4;
+    private static final int RELOADS = 200;
+
+    public static class Language {
+        public Text greeting = Text.of("Hello");
+        public Map<String, Text> items = new LinkedHashMap<>();
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadPublishesNewKeysAndUpdatesHeldTexts() throws IOException {
+        var file = directory.resolve("en_US.json");
+        write(file, 0);
+        var registry = newRegistry();
+        registry.load();
+        var held = registry.text(Locale.US, "greeting");
+        assertNull(registry.text(Locale.US, "items.new"));
+
+        for (int version = 1; version <= 2; version++) {
+            write(file, version);
+            registry.reload(List.of(file.toFile()), (failed, e) -> fail(e));
+            assertEquals("Hello " + version, held.original());
+            assertSame(held, registry.text(Locale.US, "greeting"));
+            assertEquals("Item " + version, registry.text(Locale.US, "items.new").original());
+        }
+    }
+
+    @Test
+    void lookupsNeverFailDuringReloads() throws Exception {
+        var file = directory.resolve("en_US.json");
+        write(file, 0);
+        var registry = newRegistry();
+        registry.load();
+        var running = new AtomicBoolean(true);
+        var executor = Executors.newFixedThreadPool(READERS);
+        try {
+            var readers = new ArrayList<Future<?>>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        var greeting = registry.text(Locale.US, "greeting");
+                        assertNotNull(greeting);
+                        assertTrue(greeting.produce().startsWith("Hello"));
+                        var item = registry.text(Locale.US, "items.old");
+                        assertNotNull(item);
+                    }
+                    return null;
+                }));
+            }
+            for (int version = 1; version <= RELOADS; version++) {
+                write(file, version);
+                registry.reload(List.of(file.toFile()), (failed, e) -> fail(e));
+            }
+            running.set(false);
+            for (var reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Hello " + RELOADS, registry.text(Locale.US, "greeting").original());
+    }
+
+    private LanguageRegistry<Language> newRegistry() {
+        return new LanguageRegistry<>(new SimpleLanguageLoader(), directory.toFile(), Language.class, Locale.US, Language::new);
+    }
+
+    private static void write(Path file, int version) throws IOException {
+        var items = version == 0 ? "\"old\": \"Old\"" : "\"old\": \"Old\", \"new\": \"Item " + version + "\"";
+        Files.writeString(file, "{\"greeting\": \"Hello " + version + "\", \"items\": {" + items + "}}");
+    }
+}
@@ -0,0 +1,197 @@
+package land.melon.lab.simplelanguageloader;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import land.melon.lab.simplelanguageloader.components.LanguageBundle;
+import land.melon.lab.simplelanguageloader.components.Text;
+import land.melon.lab.simplelanguageloader.metrics.Instrumentation;
+import land.melon.lab.simplelanguageloader.metrics.LanguageMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleLanguageLoaderTest {
+    public static class Language {
+        public Text greeting = Text.of("Hello");
+        public Map<String, Text> items = new LinkedHashMap<>();
+        public int count;
+    }
+
+    public static class Menu {
+        public Text title = Text.of("Title");
+        public Text footer = Text.of("Footer");
+    }
+
+    public static class MenuLanguage {
+        public Text greeting = Text.of("Hello");
+        public Menu menu = new Menu();
+        public int count = 1;
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void unchangedSaveLeavesFileUntouched() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = directory.resolve("en_US.json");
+        loader.saveToFile(file.toFile(), new Language());
+        var modified = FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(file, modified);
+
+        loader.saveToFile(file.toFile(), new Language());
+        assertEquals(modified, Files.getLastModifiedTime(file));
+
+        var changed = new Language();
+        changed.greeting = Text.of("Hi");
+        loader.saveToFile(file.toFile(), changed);
+        assertNotEquals(modified, Files.getLastModifiedTime(file));
+        assertEquals("Hi", loader.<Language>loadFromFile(file.toFile(), Language.class).greeting.original());
+        try (var files = Files.list(directory)) {
+            assertEquals(1L, files.count());
+        }
+    }
+
+    @Test
+    void bundleLoadsLikeJson() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = writeLanguageFile();
+        var bundle = directory.resolve("en_US.bundle").toFile();
+        loader.compileBundle(file.toFile(), bundle);
+
+        Language loaded = loader.loadWithBundle(file.toFile(), bundle, Language.class);
+        Language expected = loader.loadFromFile(file.toFile(), Language.class);
+        assertEquals(expected.greeting.coloredAsList(), loaded.greeting.coloredAsList());
+        assertEquals(expected.items.keySet(), loaded.items.keySet());
+        assertEquals(expected.items.get("sword").produce(), loaded.items.get("sword").produce());
+        assertEquals(3, loaded.count);
+    }
+
+    @Test
+    void corruptedBundleFallsBackToJson() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = writeLanguageFile();
+        var bundle = directory.resolve("en_US.bundle");
+        loader.compileBundle(file.toFile(), bundle.toFile());
+        var intact = Files.readAllBytes(bundle);
+
+        // the header, offset tables, strings, lines and tokens are all hit by some position
+        for (int position = 0; position < intact.length; position++) {
+            var corrupted = intact.clone();
+            corrupted[position] ^= (byte) 0xA5;
+            Files.write(bundle, corrupted);
+            Language loaded = loader.loadWithBundle(file.toFile(), bundle.toFile(), Language.class);
+            assertNotNull(loaded, "corrupted at " + position);
+        }
+        Files.write(bundle, List.of("truncated"));
+        Language loaded = loader.loadWithBundle(file.toFile(), bundle.toFile(), Language.class);
+        assertEquals("&aHello {player}", loaded.greeting.originalAsList().get(0));
+    }
+
+    @Test
+    void staleBundleIsCompiledAgain() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = writeLanguageFile();
+        var bundle = directory.resolve("en_US.bundle").toFile();
+        loader.compileBundle(file.toFile(), bundle);
+        Files.writeString(file, "{\"greeting\": \"Hi\", \"count\": 5}");
+
+        Language loaded = loader.loadWithBundle(file.toFile(), bundle, Language.class);
+        assertEquals("Hi", loaded.greeting.original());
+        assertTrue(LanguageBundle.open(bundle).isCompiledFrom(file.toFile()));
+        Language reloaded = LanguageBundle.open(bundle).load(new GsonBuilder()
+                .registerTypeAdapter(Text.class, Text.gsonSerializer).create(), Language.class);
+        assertEquals("Hi", reloaded.greeting.original());
+        assertEquals(5, reloaded.count);
+    }
+
+    @Test
+    void unwritableBundleDoesNotFailTheLoad() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = writeLanguageFile();
+        var bundle = directory.resolve("missing").resolve("en_US.bundle").toFile();
+
+        Language loaded = loader.loadWithBundle(file.toFile(), bundle, Language.class);
+        assertEquals(3, loaded.count);
+        assertFalse(bundle.exists());
+    }
+
+    @Test
+    void mergeAppendsMissingKeysAndKeepsTheRest() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = directory.resolve("en_US.json");
+        Files.writeString(file, "{\"count\": 7, \"unknown\": \"kept\", \"menu\": {\"title\": \"My title\"}}");
+
+        MenuLanguage loaded = loader.loadOrMerge(file.toFile(), MenuLanguage.class, MenuLanguage::new);
+        assertEquals(7, loaded.count);
+        assertEquals("My title", loaded.menu.title.original());
+        assertEquals("Footer", loaded.menu.footer.original());
+        assertEquals("Hello", loaded.greeting.original());
+
+        var saved = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        assertEquals(List.of("count", "unknown", "menu", "greeting"), List.copyOf(saved.keySet()));
+        assertEquals(List.of("title", "footer"), List.copyOf(saved.getAsJsonObject("menu").keySet()));
+        assertEquals("kept", saved.get("unknown").getAsString());
+        assertEquals(7, saved.get("count").getAsInt());
+    }
+
+    @Test
+    void mergeWithoutMissingKeysLeavesFileUntouched() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var file = directory.resolve("en_US.json");
+        var content = "{\"count\": 7, \"menu\": {\"footer\": \"F\", \"title\": \"T\"}, \"greeting\": \"Hi\", \"unknown\": 1}";
+        Files.writeString(file, content);
+        var modified = FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(file, modified);
+
+        MenuLanguage loaded = loader.loadOrMerge(file.toFile(), MenuLanguage.class, MenuLanguage::new);
+        assertEquals("Hi", loaded.greeting.original());
+        assertEquals(content, Files.readString(file));
+        assertEquals(modified, Files.getLastModifiedTime(file));
+    }
+
+    @Test
+    void mergeCreatesMissingAndEmptyFilesAndReportsTheLoad() throws IOException {
+        var loader = new SimpleLanguageLoader();
+        var reported = new ArrayList<File>();
+        Instrumentation.install(new LanguageMetrics() {
+            @Override
+            public void fileLoaded(File file, Object container, long nanos, int texts, int lines) {
+                reported.add(file);
+            }
+        });
+        try {
+            var missing = directory.resolve("missing.json").toFile();
+            MenuLanguage created = loader.loadOrMerge(missing, MenuLanguage.class, MenuLanguage::new);
+            assertEquals("Hello", created.greeting.original());
+            assertEquals("Hello", loader.<MenuLanguage>loadFromFile(missing, MenuLanguage.class).greeting.original());
+
+            var empty = directory.resolve("empty.json");
+            Files.writeString(empty, "");
+            loader.loadOrMerge(empty.toFile(), MenuLanguage.class, MenuLanguage::new);
+            assertEquals(1, loader.<MenuLanguage>loadFromFile(empty.toFile(), MenuLanguage.class).count);
+
+            assertEquals(List.of(missing, missing, empty.toFile(), empty.toFile()), reported);
+        } finally {
+            Instrumentation.install(LanguageMetrics.NOOP);
+        }
+    }
+
+    private Path writeLanguageFile() throws IOException {
+        var file = directory.resolve("en_US.json");
+        Files.writeString(file, "{\"greeting\": [\"&aHello {player}\", \"&#66ccffWelcome\"], "
+                + "\"items\": {\"sword\": \"&7Sword\", \"shield\": \"&7Shield\"}, \"count\": 3}");
+        return file;
+    }
+}
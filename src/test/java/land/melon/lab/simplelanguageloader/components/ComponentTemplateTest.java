@@ -0,0 +1,105 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentTemplateTest {
+    @Test
+    void legacyCodesBecomeStyles() {
+        var template = TextTemplate.compile("§aHello §l{player}§r!").componentTemplate();
+        assertEquals(List.of(
+                run("Hello ", NamedTextColor.GREEN),
+                run("Steve", NamedTextColor.GREEN, TextDecoration.BOLD),
+                run("!", null)), runs(template.render(pairs(Pair.of("player", "Steve")))));
+    }
+
+    @Test
+    void expandedHexColorsAndUnknownCodes() {
+        var template = TextTemplate.compile("§x§6§6§c§c§f§fHi §z50§ off").componentTemplate();
+        assertEquals(List.of(run("Hi §z50§ off", TextColor.color(0x66ccff))), runs(template.render(pairs())));
+    }
+
+    @Test
+    void valuesAreStyledLikeTheirSlot() {
+        var template = TextTemplate.compile("§7Paid {who} {amount}").componentTemplate();
+        var rendered = template.render(pairs(Pair.of("who", "§cBob"), Pair.of("amount", Component.text("5", NamedTextColor.GOLD))));
+        assertEquals(List.of(
+                run("Paid ", NamedTextColor.GRAY),
+                run("Bob", NamedTextColor.RED),
+                run(" ", NamedTextColor.GRAY),
+                run("5", NamedTextColor.GOLD)), runs(rendered));
+
+        assertEquals(List.of(run("Paid {who} {amount}", NamedTextColor.GRAY)), runs(template.render(pairs())));
+    }
+
+    @Test
+    void boundTemplateRendersLikeTheWholeTemplate() {
+        var template = TextTemplate.compile("§e{a} and §b{b}").componentTemplate();
+        var bound = template.bind(new Placeholders().set("a", "first"));
+        assertEquals(runs(template.render(new Placeholders().set("a", "first").set("b", "second"))),
+                runs(bound.render(new Placeholders().set("b", "second"))));
+    }
+
+    @SafeVarargs
+    static Pair<String, Object>[] pairs(Pair<String, Object>... pairs) {
+        return pairs;
+    }
+
+    static String run(String text, TextColor color, TextDecoration... decorations) {
+        var run = new StringBuilder(color == null ? "" : color.asHexString());
+        for (var decoration : decorations) {
+            run.append('+').append(decoration);
+        }
+        return run.append(' ').append(text).toString();
+    }
+
+    /**
+     * @return the text of a component as runs of the same color and decorations, independent of its tree shape
+     */
+    static List<String> runs(Component component) {
+        var runs = new ArrayList<String>();
+        var styles = new ArrayList<String>();
+        collect(component, null, List.of(), runs, styles);
+        return runs;
+    }
+
+    private static void collect(Component component, TextColor color, List<TextDecoration> decorations, List<String> runs, List<String> styles) {
+        var style = component.style();
+        if (style.color() != null) {
+            color = style.color();
+        }
+        var active = new ArrayList<>(decorations);
+        for (var decoration : TextDecoration.values()) {
+            var state = style.decoration(decoration);
+            if (state == TextDecoration.State.TRUE && !active.contains(decoration)) {
+                active.add(decoration);
+            } else if (state == TextDecoration.State.FALSE) {
+                active.remove(decoration);
+            }
+        }
+        active.sort(null);
+        if (component instanceof TextComponent text && !text.content().isEmpty()) {
+            var styleKey = run("", color, active.toArray(TextDecoration[]::new));
+            var last = styles.size() - 1;
+            if (last >= 0 && styles.get(last).equals(styleKey)) {
+                runs.set(last, runs.get(last) + text.content());
+            } else {
+                styles.add(styleKey);
+                runs.add(styleKey + text.content());
+            }
+        }
+        for (var child : component.children()) {
+            collect(child, color, active, runs, styles);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LanguageContainerAdapterFactoryTest {
+    public static class Language {
+        public static Text shared = Text.of("shared");
+        @Expose
+        public Text welcomeMessage = Text.of("Welcome");
+        @Expose
+        @SerializedName(value = "bye", alternate = "farewell")
+        public Text goodbye = Text.of("Bye");
+        public transient Text cached = Text.of("cached");
+        public Text hidden = Text.of("hidden");
+    }
+
+    @Test
+    void selectsAndNamesFieldsLikeGson() {
+        var reports = new ArrayList<LanguageContainerAdapterFactory.KeyReport>();
+        var gson = new GsonBuilder().registerTypeAdapter(Text.class, Text.gsonSerializer)
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .registerTypeAdapterFactory(new LanguageContainerAdapterFactory(reports::add)).create();
+
+        var json = gson.toJsonTree(new Language()).getAsJsonObject();
+        assertEquals(List.of("welcome_message", "bye", "hidden"), List.copyOf(json.keySet()));
+
+        var loaded = gson.fromJson("{\"welcome_message\":\"Hi\",\"farewell\":\"Later\",\"cached\":\"x\"}", Language.class);
+        assertEquals("Hi", loaded.welcomeMessage.original());
+        assertEquals("Later", loaded.goodbye.original());
+        assertEquals("cached", loaded.cached.original());
+        assertEquals(1, reports.size());
+        assertEquals(List.of("hidden"), reports.get(0).missingKeys());
+        assertEquals(List.of("cached"), reports.get(0).extraKeys());
+    }
+
+    @Test
+    void exposedOnlyAndNamingStrategyComeFromTheFactory() {
+        var gson = new GsonBuilder().registerTypeAdapter(Text.class, Text.gsonSerializer)
+                .excludeFieldsWithoutExposeAnnotation()
+                .registerTypeAdapterFactory(new LanguageContainerAdapterFactory(null, FieldNamingPolicy.UPPER_CAMEL_CASE, true))
+                .create();
+
+        var json = gson.toJsonTree(new Language()).getAsJsonObject();
+        assertEquals(List.of("WelcomeMessage", "bye"), List.copyOf(json.keySet()));
+
+        var loaded = gson.fromJson("{\"WelcomeMessage\":\"Hi\",\"hidden\":\"shown\"}", Language.class);
+        assertEquals("Hi", loaded.welcomeMessage.original());
+        assertEquals("hidden", loaded.hidden.original());
+    }
+}
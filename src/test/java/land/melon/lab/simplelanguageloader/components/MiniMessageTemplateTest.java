@@ -0,0 +1,66 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static land.melon.lab.simplelanguageloader.components.ComponentTemplateTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiniMessageTemplateTest {
+    private static final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    @Test
+    void slotsKeepTheStyleOfTheirTags() {
+        var template = MiniMessageTemplate.compile("<red>Hi {player}</red>, <bold>{count}</bold> left");
+        assertEquals(List.of(
+                run("Hi Steve", NamedTextColor.RED),
+                run(", ", null),
+                run("3", null, TextDecoration.BOLD),
+                run(" left", null)), runs(template.render(pairs(Pair.of("player", "Steve"), Pair.of("count", 3)))));
+        assertEquals(List.of(
+                run("Hi {player}", NamedTextColor.RED),
+                run(", ", null),
+                run("{count}", null, TextDecoration.BOLD),
+                run(" left", null)), runs(template.render(new Placeholders())));
+    }
+
+    @Test
+    void placeholdersInUnquotedTagArgumentsAreSubstitutedBeforeParsing() {
+        var color = MiniMessageTemplate.compile("<color:{color}>Hello</color>");
+        assertEquals(miniMessage.deserialize("<color:red>Hello</color>"), color.render(pairs(Pair.of("color", "red"))));
+        assertEquals(List.of(run("Hello", NamedTextColor.RED)), runs(color.render(new Placeholders().set("color", "red"))));
+
+        var click = MiniMessageTemplate.compile("<click:run_command:/tp {player}>Teleport to {player}");
+        assertEquals(miniMessage.deserialize("<click:run_command:/tp Steve>Teleport to Steve"),
+                click.render(pairs(Pair.of("player", "Steve"))));
+    }
+
+    @Test
+    void substitutedValuesCannotAddTags() {
+        var template = MiniMessageTemplate.compile("<click:run_command:/tp {id}>Teleport to {name}");
+        var rendered = template.render(pairs(Pair.of("id", "Steve"), Pair.of("name", "<bold><click:run_command:/op Steve>Steve")));
+        assertEquals(miniMessage.deserialize("<click:run_command:/tp Steve>Teleport to "
+                + miniMessage.escapeTags("<bold><click:run_command:/op Steve>Steve")), rendered);
+        assertEquals(List.of(run("Teleport to <bold><click:run_command:/op Steve>Steve", null)), runs(rendered));
+
+        var placeholders = new Placeholders().set("id", "Steve").set("name", Component.text("Steve", NamedTextColor.GOLD));
+        assertEquals(List.of(run("Teleport to ", null), run("Steve", NamedTextColor.GOLD)), runs(template.render(placeholders)));
+    }
+
+    @Test
+    void textProducesEveryLineAsMiniMessage() {
+        var text = Text.of("<green>Welcome {player}", "<blue>{online} online");
+        var expected = List.of(
+                run("Welcome Steve", NamedTextColor.GREEN),
+                run("\n", null),
+                run("5 online", NamedTextColor.BLUE));
+        assertEquals(expected, runs(text.produceAsMiniMessage(Pair.of("player", "Steve"), Pair.of("online", 5))));
+        assertEquals(expected, runs(text.produceAsMiniMessage(new Placeholders().set("player", "Steve").set("online", 5))));
+    }
+}
@@ -0,0 +1,162 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaceholderFormatTest {
+    private static final Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.forLanguageTag("de-CH"),
+            Locale.forLanguageTag("hi-IN"), Locale.forLanguageTag("ar-EG")};
+
+    private static String render(String line, Object value) {
+        return Text.of(line).produce(new Placeholders().locale(Locale.US).set("n", value));
+    }
+
+    private static String format(String content, Object value, Locale locale) {
+        var format = PlaceholderFormat.parse(content, content.indexOf(','));
+        var builder = new StringBuilder();
+        format.format(builder, value, locale);
+        return builder.toString();
+    }
+
+    private static String plural(String languageTag, Object value) {
+        return format("n,plural,=0{none}one{# one}few{# few}many{# many}other{# other}", value, Locale.forLanguageTag(languageTag));
+    }
+
+    @Test
+    void formatsValidStyles() {
+        assertEquals("1,234.5", render("{n,number,#,##0.0}", 1234.5));
+        assertEquals("2 coins", render("{n,plural,one{# coin}other{# coins}}", 2));
+        assertEquals("1:02:03", render("{n,duration}", 3_723_000L));
+        assertEquals("12:30", render("{n,time,HH:mm}", LocalTime.of(12, 30)));
+    }
+
+    @Test
+    void malformedStylesArePlainPlaceholders() {
+        assertEquals("{n,number,#.#.#}", render("{n,number,#.#.#}", 5));
+        assertEquals("{n,date,qqqqqqq}", render("{n,date,qqqqqqq}", 0L));
+        assertEquals("{n,unknown}", render("{n,unknown}", 5));
+    }
+
+    @Test
+    void patternWithoutMatchingFieldsRendersTheValue() {
+        assertEquals("12:30", render("{n,date,yyyy-MM-dd}", LocalTime.of(12, 30)));
+    }
+
+    @Test
+    void numberFastPathMatchesDecimalFormat() {
+        var patterns = new String[]{"#,##0.00", "0.###", "#,##0", "0.0", "00000", "#,##0.0#", "#"};
+        var random = new Random(20240501L);
+        for (var locale : locales) {
+            for (var pattern : patterns) {
+                var expected = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+                for (int i = 0; i < 500; i++) {
+                    var sign = random.nextBoolean() ? 1 : -1;
+                    double[] doubles = {
+                            sign * random.nextDouble() * Math.pow(10, random.nextInt(16)),
+                            // ties at every rounding position, whose exact binary value decides the rounding
+                            sign * (random.nextInt(100_000) + 0.5) / Math.pow(10, random.nextInt(4)),
+                            sign * random.nextInt(1000) / 1000.0};
+                    for (var value : doubles) {
+                        assertEquals(expected.format(value), format("n,number," + pattern, value, locale), pattern + " " + locale + " " + value);
+                    }
+                    var longValue = random.nextLong() >> random.nextInt(64);
+                    assertEquals(expected.format(longValue), format("n,number," + pattern, longValue, locale), pattern + " " + locale + " " + longValue);
+                    var decimal = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(8));
+                    assertEquals(expected.format(decimal), format("n,number," + pattern, decimal, locale), pattern + " " + locale + " " + decimal);
+                }
+            }
+            var numberInstance = NumberFormat.getNumberInstance(locale);
+            for (var value : new double[]{0, -0.0, 1234567.891, -0.0005, 0.0015, Double.NaN, Double.NEGATIVE_INFINITY, 1e20}) {
+                assertEquals(numberInstance.format(value), format("n,number", value, locale), locale + " " + value);
+            }
+            assertEquals(NumberFormat.getIntegerInstance(locale).format(2.5), format("n,number,integer", 2.5, locale));
+            assertEquals(NumberFormat.getPercentInstance(locale).format(0.25), format("n,number,percent", 0.25, locale));
+        }
+    }
+
+    @Test
+    void pluralSelectsExactValuesThenCategories() {
+        assertEquals("none", plural("en", 0));
+        assertEquals("1 one", plural("en", 1));
+        assertEquals("2 other", plural("en", 2));
+        assertEquals("1.5 other", plural("en", 1.5));
+        assertEquals("1,000 other", plural("en", 1000L));
+        assertEquals("3 other", plural("ja", 3));
+        assertEquals("1 other", plural("ja", 1));
+        assertEquals("1,5 one", plural("fr", 1.5));
+
+        assertEquals("1 one", plural("ru", 1));
+        assertEquals("21 one", plural("ru", 21));
+        assertEquals("11 many", plural("ru", 11));
+        assertEquals("2 few", plural("ru", 2));
+        assertEquals("24 few", plural("ru", 24));
+        assertEquals("12 many", plural("ru", 12));
+        assertEquals("5 many", plural("ru", 5));
+        assertEquals("-22 few", plural("ru", -22));
+        assertEquals("1,5 other", plural("ru", 1.5));
+
+        assertEquals("1 one", plural("pl", 1));
+        assertEquals("21 many", plural("pl", 21));
+        assertEquals("3 few", plural("pl", 3));
+        assertEquals("23 few", plural("pl", 23));
+        assertEquals("13 many", plural("pl", 13));
+
+        assertEquals("1 one", plural("cs", 1));
+        assertEquals("4 few", plural("cs", 4));
+        assertEquals("5 other", plural("cs", 5));
+        assertEquals("22 other", plural("cs", 22));
+
+        // a missing category falls back to other, nested placeholders stay in the branch
+        assertEquals("2 coins for {player}", render("{n,plural,one{# coin for {player}}other{# coins for {player}}}", 2));
+        assertEquals("few: 2", Text.of("{n,plural,=1{one}other{few: #}}").produce(new Placeholders().locale(Locale.forLanguageTag("ru")).set("n", 2)));
+    }
+
+    @Test
+    void durationInBothStyles() {
+        assertEquals("0:00", format("n,duration", 0L, Locale.US));
+        assertEquals("1:02", format("n,duration", 62_000L, Locale.US));
+        assertEquals("1:02:03", format("n,duration", Duration.ofSeconds(3723), Locale.US));
+        assertEquals("26:00:00", format("n,duration", Duration.ofHours(26), Locale.US));
+        assertEquals("-1:02", format("n,duration", -62_000L, Locale.US));
+        assertEquals("0s", format("n,duration,short", 999L, Locale.US));
+        assertEquals("1h", format("n,duration,short", Duration.ofHours(1), Locale.US));
+        assertEquals("1d 1h 1m 1s", format("n,duration,short", Duration.ofSeconds(90061), Locale.US));
+        assertEquals("2m 5s", render("{n,duration,short}", 125_000));
+    }
+
+    @Test
+    void datesTimesAndDatetimes() {
+        var date = LocalDate.of(2024, 3, 5);
+        var dateTime = LocalDateTime.of(2024, 3, 5, 14, 7, 9);
+        assertEquals("2024-03-05", format("n,date,yyyy-MM-dd", date, Locale.US));
+        assertEquals(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(Locale.GERMANY).format(date),
+                format("n,date,short", date, Locale.GERMANY));
+        assertEquals(DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(Locale.US).format(date),
+                format("n,date", date, Locale.US));
+        assertEquals(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(Locale.US).format(dateTime),
+                format("n,time,short", dateTime, Locale.US));
+        assertEquals("14:07:09", format("n,time,HH:mm:ss", dateTime.toLocalTime(), Locale.US));
+        assertEquals(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM).withLocale(Locale.FRANCE).format(dateTime),
+                format("n,datetime", dateTime, Locale.FRANCE));
+
+        // epoch milliseconds, dates and calendars are shown in the system time zone
+        var millis = 1_700_000_000_000L;
+        var expected = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+        assertEquals(expected, format("n,datetime,yyyy-MM-dd HH:mm", millis, Locale.US));
+        assertEquals(expected, format("n,datetime,yyyy-MM-dd HH:mm", new Date(millis), Locale.US));
+        var calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        assertEquals(expected, format("n,datetime,yyyy-MM-dd HH:mm", calendar, Locale.US));
+        assertEquals("not a date", format("n,date", "not a date", Locale.US));
+    }
+}
@@ -0,0 +1,116 @@
+package land.melon.lab.simplelanguageloader.components;
+
+import land.melon.lab.simplelanguageloader.utils.ColorConverter;
+import land.melon.lab.simplelanguageloader.utils.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders texts from many threads while they are compiled or rebound, see the thread safety notes of {@link Text}.
+ */
+class TextConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void renderSeesWholeLinesWhileRebound() throws Exception {
+        assertWholeRendersWhileRebound(text -> text.produceAsList(Pair.of("n", 1)));
+        assertWholeRendersWhileRebound(text -> text.produce(new Placeholders().set("n", 1)));
+    }
+
+    @Test
+    void componentRenderSeesWholeLinesWhileRebound() throws Exception {
+        assertWholeRendersWhileRebound(text -> text.produceAsComponent(Pair.of("n", 1)));
+        assertWholeRendersWhileRebound(text -> text.produceAsMiniMessage(new Placeholders().set("n", 1)));
+    }
+
+    /**
+     * Render a text from many threads while it's rebound back and forth, every render must equal the render of
+     * either the old or the new content as a whole.
+     */
+    private void assertWholeRendersWhileRebound(Function<Text, Object> render) throws Exception {
+        var old = Text.of("&aold {n}", "old {n}", "old {n}");
+        var fresh = Text.of("&bnew {n}", "new {n}", "new {n}");
+        var text = Text.of("&aold {n}", "old {n}", "old {n}");
+        var expectedOld = render.apply(old);
+        var expectedNew = render.apply(fresh);
+        var running = new AtomicBoolean(true);
+        var start = new CountDownLatch(1);
+
+        var readers = new ArrayList<Future<?>>();
+        for (int i = 0; i < THREADS; i++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    var rendered = render.apply(text);
+                    // lines of the old and the new content are never mixed in one render
+                    assertTrue(rendered.equals(expectedOld) || rendered.equals(expectedNew), "mixed render " + rendered);
+                }
+                return null;
+            }));
+        }
+        var writer = executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < ITERATIONS; i++) {
+                text.rebind(i % 2 == 0 ? fresh : old);
+            }
+            return null;
+        });
+        start.countDown();
+        writer.get(30, TimeUnit.SECONDS);
+        running.set(false);
+        for (var reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        assertEquals(expectedOld, render.apply(text));
+    }
+
+    @Test
+    void lazyLinesCompileConsistentlyUnderContention() throws Exception {
+        // unique lines, so no other test has compiled the pooled lines yet
+        var salt = UUID.randomUUID();
+        var lines = new String[512];
+        var expected = new ArrayList<String>(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "&a#" + i + " &#66ccff{player} " + salt;
+            expected.add(ColorConverter.convertColorCodes(lines[i]).value());
+        }
+        var text = Text.lazyOf(lines);
+        var start = new CountDownLatch(1);
+
+        var readers = new ArrayList<Future<List<String>>>();
+        for (int i = 0; i < THREADS; i++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                return new ArrayList<>(text.coloredAsList());
+            }));
+        }
+        start.countDown();
+        for (var reader : readers) {
+            assertEquals(expected, reader.get(30, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Compares the single-scan converter with the regex pipeline it replaced, kept below as {@link Regex}.
+ */
+class ColorConverterTest {
+    private static final List<String> samples = List.of(
+            "", "plain text", "&", "&&", "&&&", "a&", "&a", "&&a", "§a&b",
+            "&#66ccff", "&#66CCFF", "&#66ccffHello", "Hi &#66ccff there &#C75F78!", "&#66ccff&#000000",
+            "&&#66ccff", "&#&#66ccff", "&#66ccf", "&#66ccfg", "&#GGGGGG", "&# 66ccff", "#66ccff", "&#66ccff0",
+            "&x&6&6&c&c&f&f", "&a&lBold &#123456{player}&r done &");
+
+    @Test
+    void matchesTheRegexPipelineOnEdgeCases() {
+        for (var sample : samples) {
+            assertMatchesRegex(sample);
+        }
+    }
+
+    @Test
+    void matchesTheRegexPipelineOnRandomText() {
+        var alphabet = "&&&##0369aAfFgGxX §{}".toCharArray();
+        var random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            var text = new char[random.nextInt(24)];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertMatchesRegex(new String(text));
+        }
+    }
+
+    @Test
+    void textsWithoutCodesAreReturnedAsIs() {
+        var text = "no color codes";
+        assertSame(text, ColorConverter.convertConvenientColorCode(text));
+        assertSame(text, ColorConverter.translateToLegacyColorText(text, '&'));
+        var converted = ColorConverter.convertColorCodes(text);
+        assertSame(text, converted.key());
+        assertSame(text, converted.value());
+        var withoutHex = "&aGreen";
+        assertSame(withoutHex, ColorConverter.convertColorCodes(withoutHex).key());
+    }
+
+    /**
+     * The regex pipeline fails on a text ending with a hex color code, see {@link Regex}, so each text is compared
+     * with a character appended, and the converter must give the same result without it.
+     */
+    private static void assertMatchesRegex(String text) {
+        var padded = text + "!";
+        var expanded = Regex.convertConvenientColorCode(padded);
+        assertEquals(expanded, ColorConverter.convertConvenientColorCode(padded), text);
+        assertEquals(expanded, ColorConverter.convertConvenientColorCode(text) + "!", text);
+
+        var colored = Regex.translateToLegacyColorText(padded, '&');
+        assertEquals(colored, ColorConverter.translateToLegacyColorText(padded, '&'), text);
+        assertEquals(colored, ColorConverter.translateToLegacyColorText(text, '&') + "!", text);
+        assertEquals(Regex.translateToLegacyColorText(padded, '$'), ColorConverter.translateToLegacyColorText(padded, '$'), text);
+        assertEquals(Regex.convertToLegacyColorCode(padded, '&'), ColorConverter.convertToLegacyColorCode(padded, '&'), text);
+
+        var both = ColorConverter.convertColorCodes(padded);
+        assertEquals(expanded, both.key(), text);
+        assertEquals(colored, both.value(), text);
+    }
+
+    /**
+     * The regex based conversion before the single-scan converter.
+     * <p>A text ending with a hex color code throws, since {@link java.util.regex.Pattern#split(CharSequence)}
+     * drops the trailing empty part.</p>
+     */
+    private static final class Regex {
+        static String convertConvenientColorCode(String text) {
+            var textParts = ColorConverter.hexColorPattern.split(text);
+            if (textParts.length == 0)
+                textParts = new String[]{"", ""};
+            var colorCodes = ColorConverter.hexColorPattern.matcher(text).results().map(MatchResult::group).toArray(String[]::new);
+            var textBuilder = new StringBuilder(textParts[0]);
+            for (int i = 0; i < colorCodes.length; i++) {
+                textBuilder.append(convertToTraditionalColorCode(colorCodes[i])).append(textParts[i + 1]);
+            }
+            return textBuilder.toString();
+        }
+
+        private static String convertToTraditionalColorCode(String x) {
+            var hexColorCode = x.substring(2);
+            var colorCodeBuilder = new StringBuilder("&x");
+            hexColorCode.chars().forEach(c -> colorCodeBuilder.append("&").append((char) c));
+            return colorCodeBuilder.toString();
+        }
+
+        static String convertToLegacyColorCode(String text, char colorPrefix) {
+            return text.replace(colorPrefix, '§').replace("" + colorPrefix + colorPrefix, "§");
+        }
+
+        static String translateToLegacyColorText(String text, char colorPrefix) {
+            return convertToLegacyColorCode(convertConvenientColorCode(text), colorPrefix);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeakIdentityMapTest {
+    @Test
+    void comparesKeysByIdentity() {
+        var map = new WeakIdentityMap<String, Integer>();
+        var key = new String("key");
+        var equalKey = new String("key");
+        assertEquals(1, map.computeIfAbsent(key, absent -> 1));
+        assertEquals(1, map.computeIfAbsent(key, absent -> 2));
+        assertEquals(3, map.computeIfAbsent(equalKey, absent -> 3));
+        assertEquals(1, map.get(key));
+        assertNull(map.get(new String("key")));
+
+        var visited = new IdentityHashMap<String, Integer>();
+        map.forEach(visited::put);
+        assertEquals(2, visited.size());
+        assertEquals(3, visited.get(equalKey));
+    }
+
+    @Test
+    void putReplacesTheValueOfTheSameKey() {
+        var map = new WeakIdentityMap<String, Integer>();
+        var key = new String("key");
+        map.put(key, 1);
+        map.put(key, 2);
+        var equalKey = new String("key");
+        map.put(equalKey, 3);
+        assertEquals(2, map.get(key));
+        assertEquals(3, map.get(equalKey));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void dropsEntriesOfCollectedKeys() throws InterruptedException {
+        var map = new WeakIdentityMap<Object, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            map.computeIfAbsent(new Object(), absent -> 0);
+        }
+        var alive = new Object();
+        for (int attempt = 0; attempt < 50 && map.size() > 2; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            // expunging happens on the next insertion
+            map.computeIfAbsent(new Object(), absent -> 0);
+        }
+        map.computeIfAbsent(alive, absent -> 1);
+        assertTrue(map.size() <= 3, "map still holds " + map.size() + " entries");
+        assertEquals(1, map.get(alive));
+    }
+}
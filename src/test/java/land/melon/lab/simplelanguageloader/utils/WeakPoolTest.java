@@ -0,0 +1,64 @@
+package land.melon.lab.simplelanguageloader.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeakPoolTest {
+    @Test
+    void sharesOneValuePerKey() {
+        var pool = new WeakPool<String, StringBuilder>();
+        var first = pool.intern("key", StringBuilder::new);
+        assertSame(first, pool.intern("key", StringBuilder::new));
+        assertSame(first, pool.intern(new String("key"), new StringBuilder()));
+        assertNotSame(first, pool.intern("other", StringBuilder::new));
+    }
+
+    @Test
+    void concurrentInternsAgreeOnOneValue() throws Exception {
+        var pool = new WeakPool<Integer, Object>();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var start = new CountDownLatch(1);
+            var results = new ArrayList<Future<Object[]>>();
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    var values = new Object[1000];
+                    for (int key = 0; key < values.length; key++) {
+                        values[key] = pool.intern(key, absent -> new Object());
+                    }
+                    return values;
+                }));
+            }
+            start.countDown();
+            var expected = results.get(0).get(30, TimeUnit.SECONDS);
+            for (var result : results) {
+                var values = result.get(30, TimeUnit.SECONDS);
+                for (int key = 0; key < values.length; key++) {
+                    assertSame(expected[key], values[key]);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void dropsCollectedValues() throws InterruptedException {
+        var pool = new WeakPool<Integer, Object>();
+        for (int key = 0; key < 1000; key++) {
+            pool.intern(key, absent -> new Object());
+        }
+        for (int attempt = 0; attempt < 50 && pool.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            // expunging happens on the next intern
+            pool.intern(-1, absent -> new Object());
+        }
+        assertTrue(pool.size() <= 1, "pool still holds " + pool.size() + " entries");
+    }
+}